@@ -1,5 +1,9 @@
 package edu.ncsu.csc216.wolf_scheduler.course;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
 /**
  * Course class for WolfScheduler, use to 
  * create Course objects.
@@ -26,12 +30,48 @@ public class Course {
 	/** Course's meeting days. */
 	private String meetingDays;
 	
+	/** Course's meeting days as a bitmask of the day constants. */
+	private int meetingDaysMask;
+	
 	/** Course's starting time. */
 	private int startTime;
 	
 	/** Course's ending time. */
 	private int endTime;
 	
+	/** True if the Course can no longer be changed. */
+	private boolean frozen;
+	
+	/** Cached hashCode of the Course, or 0 if it has not been computed. */
+	private int hash;
+	
+	/** Cached result of getMeetingString(), or null if it has not been built. */
+	private String meetingString;
+	
+	/** Cached result of toString(), or null if it has not been built. */
+	private String record;
+	
+	/** Cached bytes of toString() in the default charset, or null if they have not been encoded. */
+	private volatile byte[] recordBytes;
+	
+	/** Bit in a meeting days mask for Monday */
+	public static final int MONDAY = 1;
+	
+	/** Bit in a meeting days mask for Tuesday */
+	public static final int TUESDAY = 1 << 1;
+	
+	/** Bit in a meeting days mask for Wednesday */
+	public static final int WEDNESDAY = 1 << 2;
+	
+	/** Bit in a meeting days mask for Thursday */
+	public static final int THURSDAY = 1 << 3;
+	
+	/** Bit in a meeting days mask for Friday */
+	public static final int FRIDAY = 1 << 4;
+	
+	/** Bit in a meeting days mask for an arranged Course */
+	public static final int ARRANGED = 1 << 5;
+	
 	/** Length of a section number */
 	private static final int SECTION_LENGTH = 3;
 	
@@ -62,6 +102,13 @@ public class Course {
 	
 	/** Constant to check if minutes is between 0 and 9 included */
 	private static final int SINGLE_DIGIT_MINUTE = 10;
+	
+	/** Number of minutes in a day */
+	private static final int MINUTES_PER_DAY = UPPER_TIME / TIME_CONSTANT * UPPER_HOUR;
+	
+	/** Standard time String for each minute of the day, from "12:00AM" to "11:59PM" */
+	private static final String[] STANDARD_TIMES = buildStandardTimes();
+	
 	/**
 	 * Constructs a Course object with values for all fields.
 	 * Source: Method is from GP1 Guided Task: Encapsulation and 
@@ -166,8 +213,11 @@ public class Course {
 	 * 			The title to set
 	 * @throws IllegalArgumentException 
 	 * 			If title is null or an empty string
+	 * @throws IllegalStateException 
+	 * 			If the Course is frozen
 	 */
 	public void setTitle(String title) {
+		startChange();
 		if (title == null) {
 			throw new IllegalArgumentException(); 
 		}
@@ -194,8 +244,11 @@ public class Course {
 	 * 			The section to set
 	 * @throws IllegalArgumentException 
 	 * 			If the section is not 3 numbers long
+	 * @throws IllegalStateException 
+	 * 			If the Course is frozen
 	 */
 	public void setSection(String section) {
+		startChange();
 		if (section == null || section.length() != SECTION_LENGTH ) {
 			throw new IllegalArgumentException();
 		}
@@ -227,8 +280,11 @@ public class Course {
 	 * 			The number credits to set for the course
 	 * @throws IllegalArgumentException 
 	 * 			If credits is less than 1 or greater than 5
+	 * @throws IllegalStateException 
+	 * 			If the Course is frozen
 	 */
 	public void setCredits(int credits) {
+		startChange();
 
 		if(credits < MIN_CREDITS) {
 			throw new IllegalArgumentException();
@@ -257,8 +313,11 @@ public class Course {
 	 * 			The instructorId to set
 	 * @throws IllegalArgumentException 
 	 * 			If instructorId is null or empty.
+	 * @throws IllegalStateException 
+	 * 			If the Course is frozen
 	 */
 	public void setInstructorId(String instructorId) {
+		startChange();
 		if(instructorId == null || instructorId.isEmpty() ) {
 			throw new IllegalArgumentException();
 		}
@@ -287,14 +346,18 @@ public class Course {
 	 * 			and if the meetingDays are invalid meaning that it must have
 	 * 			"M" "T" "W" "T" "F" as a combination of strings and no other
 	 * 			characters. If there is an "A" it must be the only character.
+	 * @throws IllegalStateException 
+	 * 			If the Course is frozen
 	 */
 	public void setMeetingDays(String meetingDays) {
+		startChange();
 		if(meetingDays == null || meetingDays.isEmpty()) {
 			throw new IllegalArgumentException();
 		}
 		
 		if(meetingDays.contains("A") && meetingDays.length() == 1){
 			this.meetingDays = meetingDays;
+			this.meetingDaysMask = ARRANGED;
 			return;
 		}
 		
@@ -302,24 +365,55 @@ public class Course {
 			throw new IllegalArgumentException();
 		}
 		
-		boolean isValid = true;
+		int mask = 0;
 		
 		for(int i = 0; i < meetingDays.length(); i++) {
-			if(!(meetingDays.charAt(i) == 'M') && !(meetingDays.charAt(i) == 'T')
-					&& !(meetingDays.charAt(i) == 'W') && !(meetingDays.charAt(i) == 'H')
-					&& !(meetingDays.charAt(i) == 'F')) {
-				isValid = false;
-				break;
+			int day = dayBit(meetingDays.charAt(i));
+			if(day == 0) {
+				throw new IllegalArgumentException();
 			}
+			mask |= day;
 		}
 		
-		if(!isValid) {
-			throw new IllegalArgumentException();
-		}
-		if(isValid) {
-			this.meetingDays = meetingDays;	
+		this.meetingDays = meetingDays;
+		this.meetingDaysMask = mask;
+	}
+	
+	/**
+	 * Returns the Course's meeting days as a bitmask of MONDAY, TUESDAY,
+	 * WEDNESDAY, THURSDAY and FRIDAY, or ARRANGED if the Course is arranged.
+	 * The mask is made when the meeting days are set, so two Courses that
+	 * meet on a common day can be found with a single bitwise AND.
+	 * 
+	 * @return the meeting days bitmask of the Course
+	 */
+	public int getMeetingDaysMask() {
+		return meetingDaysMask;
+	}
+	
+	/**
+	 * Returns the meeting days mask bit for a meeting day character.
+	 * 
+	 * @param day 
+	 * 			The meeting day character
+	 * @return the bit for the day, or 0 if the character is not a 
+	 * 			meeting day other than "A"
+	 */
+	private static int dayBit(char day) {
+		switch(day) {
+		case 'M':
+			return MONDAY;
+		case 'T':
+			return TUESDAY;
+		case 'W':
+			return WEDNESDAY;
+		case 'H':
+			return THURSDAY;
+		case 'F':
+			return FRIDAY;
+		default:
+			return 0;
 		}
-		
 	}
 	
 	/**
@@ -355,8 +449,11 @@ public class Course {
 	 * @throws IllegalArgumentException 
 	 * 			If start time or end time is less than 0 or greater than 2359, 
 	 * 			and the minutes are not between 0 and 59 inclusive.
+	 * @throws IllegalStateException 
+	 * 			If the Course is frozen
 	 */
 	public void setCourseTime(int startTime, int endTime) {
+		startChange();
 		if(startTime / TIME_CONSTANT < 0 || startTime / TIME_CONSTANT > UPPER_TIME / TIME_CONSTANT - 1) {
 			throw new IllegalArgumentException();
 		}
@@ -384,65 +481,139 @@ public class Course {
 	/**
 	 * Returns a String of meetingDays followed by startTime
 	 * and endTime in standard time format with respective
-	 * AM and PM.
+	 * AM and PM. The String is built the first time it is
+	 * needed and cached until the meeting days or times change.
 	 * 
 	 * @return a String representation of Course meetingDays 
 	 * and startTime and endTime.
 	 */
 	public String getMeetingString() {
+		String meeting = meetingString;
+		if(meeting == null) {
+			meeting = buildMeetingString();
+			meetingString = meeting;
+		}
+		return meeting;
+	}
+	
+	/**
+	 * Builds the String returned by getMeetingString().
+	 * 
+	 * @return a String representation of Course meetingDays 
+	 * and startTime and endTime.
+	 */
+	private String buildMeetingString() {
 		if(this.meetingDays.contentEquals("A")) {
 			return "Arranged";
 		}
 		String startTimeStandard = convertTimeMilitaryToStandard(this.startTime);
 		String endTimeStandard = convertTimeMilitaryToStandard(this.endTime);
-		return this.meetingDays + " " + startTimeStandard + "-" + endTimeStandard;
+		return new StringBuilder(this.meetingDays.length() + startTimeStandard.length() 
+				+ endTimeStandard.length() + 2).append(this.meetingDays).append(' ')
+				.append(startTimeStandard).append('-').append(endTimeStandard).toString();
 	}
 	
 	/**
 	 * Returns a string representation of militaryTime with AM or 
 	 * PM attached to the end. For example 1340 would return "1:40PM".
+	 * The String is looked up in the table of every minute of the day.
 	 * 
 	 * @param militaryTime 
 	 * 			The time in military time to be converted
 	 * 			to standard time format
 	 * @return a String representation of time in standard format 
 	 */
-	private String convertTimeMilitaryToStandard(int militaryTime) {
-		int hour = militaryTime / TIME_CONSTANT;
-		int minutes = militaryTime % TIME_CONSTANT;
+	private static String convertTimeMilitaryToStandard(int militaryTime) {
+		return STANDARD_TIMES[militaryTime / TIME_CONSTANT * UPPER_HOUR + militaryTime % TIME_CONSTANT];
+	}
+	
+	/**
+	 * Builds the table of the standard time String for each minute 
+	 * of the day, used by convertTimeMilitaryToStandard().
+	 * 
+	 * @return the standard time String for each minute of the day
+	 */
+	private static String[] buildStandardTimes() {
+		String[] times = new String[MINUTES_PER_DAY];
+		for (int i = 0; i < MINUTES_PER_DAY; i++) {
+			int hour = i / UPPER_HOUR;
+			int minutes = i % UPPER_HOUR;
+			String amOrPm = hour >= AM_OR_PM ? "PM" : "AM";
 
-		// PM times
-		if (hour >= AM_OR_PM) {
 			hour = hour % AM_OR_PM;
 			if (hour == 0) {
 				hour = AM_OR_PM;
 			}
 
 			if (minutes < SINGLE_DIGIT_MINUTE) {
-				return hour + ":0" + minutes + "PM";
+				times[i] = hour + ":0" + minutes + amOrPm;
+			} else {
+				times[i] = hour + ":" + minutes + amOrPm;
 			}
-
-			return hour + ":" + minutes + "PM";
-		}
-
-		// AM times
-		if (hour == 0) {
-			hour = AM_OR_PM;
 		}
-		if (minutes < SINGLE_DIGIT_MINUTE) {
-			return hour + ":0" + minutes + "AM";
+		return times;
+	}
+	
+	/**
+	 * Freezes the Course so that it can no longer be changed. After a
+	 * Course is frozen, every setter throws an IllegalStateException, so
+	 * the Course can safely be shared and used as a key in a HashMap
+	 * or HashSet for as long as it lives.
+	 */
+	public void freeze() {
+		frozen = true;
+	}
+	
+	/**
+	 * Returns true if the Course has been frozen.
+	 * 
+	 * @return true if the Course can no longer be changed
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+	
+	/**
+	 * Called by each setter before it changes a field. Clears the
+	 * cached hashCode, meeting String and record, since they may no
+	 * longer be right.
+	 * 
+	 * @throws IllegalStateException 
+	 * 			If the Course is frozen
+	 */
+	private void startChange() {
+		if(frozen) {
+			throw new IllegalStateException("Course is frozen");
 		}
-
-		return hour + ":" + minutes + "AM";
+		hash = 0;
+		meetingString = null;
+		record = null;
+		recordBytes = null;
 	}
 	
 	/**
-	 * Generates a hashCode for Course using all fields.
+	 * Generates a hashCode for Course using all fields. The hashCode
+	 * is computed the first time it is needed and cached until a
+	 * field changes.
 	 * 
 	 * @return hashCode for Course
 	 */
 	@Override
 	public int hashCode() {
+		int h = hash;
+		if(h == 0) {
+			h = computeHashCode();
+			hash = h;
+		}
+		return h;
+	}
+	
+	/**
+	 * Computes the hashCode for Course from all fields.
+	 * 
+	 * @return hashCode for Course
+	 */
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + credits;
@@ -472,6 +643,10 @@ public class Course {
 		if (getClass() != obj.getClass())
 			return false;
 		Course other = (Course) obj;
+		int h = hash;
+		int otherHash = other.hash;
+		if (h != 0 && otherHash != 0 && h != otherHash)
+			return false;
 		if (credits != other.credits)
 			return false;
 		if (endTime != other.endTime)
@@ -508,15 +683,57 @@ public class Course {
 
 	/**
 	 * Returns a comma separated value String of all Course fields.
+	 * The String is built the first time it is needed and cached
+	 * until a field changes.
 	 * 
 	 * @return String representation of Course
 	 */
 	@Override
 	public String toString() {
-	    if (meetingDays.equals("A")) {
-	        return name + "," + title + "," + section + "," + credits + "," + instructorId + "," + meetingDays;
+	    String s = record;
+	    if (s == null) {
+	        s = appendRecord(new StringBuilder()).toString();
+	        record = s;
+	    }
+	    return s;
+	}
+
+	/**
+	 * Writes the bytes of toString(), encoded in the default charset,
+	 * to the given stream. The bytes are encoded the first time they
+	 * are needed and cached until a field changes, so writing the
+	 * same Course again only copies its bytes.
+	 * 
+	 * @param out 
+	 * 			The stream to write the record to
+	 * @throws IOException 
+	 * 			If the record cannot be written
+	 */
+	public void writeRecord(OutputStream out) throws IOException {
+	    byte[] bytes = recordBytes;
+	    if (bytes == null) {
+	        bytes = toString().getBytes(Charset.defaultCharset());
+	        recordBytes = bytes;
+	    }
+	    out.write(bytes);
+	}
+
+	/**
+	 * Appends the comma separated value String of all Course fields,
+	 * the same as toString() returns, to the given StringBuilder.
+	 * Arranged Courses do not have a start or end time in the record.
+	 * 
+	 * @param record 
+	 * 			The StringBuilder to append the record to
+	 * @return the given StringBuilder
+	 */
+	public StringBuilder appendRecord(StringBuilder record) {
+	    record.append(name).append(',').append(title).append(',').append(section).append(',')
+	            .append(credits).append(',').append(instructorId).append(',').append(meetingDays);
+	    if (!meetingDays.equals("A")) {
+	        record.append(',').append(startTime).append(',').append(endTime);
 	    }
-	    return name + "," + title + "," + section + "," + credits + "," + instructorId + "," + meetingDays + "," + startTime + "," + endTime; 
+	    return record;
 	}
 	
 
@@ -0,0 +1,119 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A CharSequence over the bytes of a ByteBuffer, with one char for each
+ * byte. Course records are ASCII, so the records in a mapped file can be
+ * parsed in place, and a field only becomes a String when toString() is
+ * called on it.
+ *
+ * Only absolute reads are made from the buffer, so its position and
+ * limit are never changed.
+ *
+ * @author Sanjana Cheerla
+ */
+final class AsciiCharSequence implements CharSequence {
+
+	/** Mask to read a byte as an unsigned value */
+	private static final int BYTE_MASK = 0xFF;
+
+	/** The buffer holding the characters */
+	private final ByteBuffer buffer;
+
+	/** Index in the buffer of the first character */
+	private final int offset;
+
+	/** Number of characters in the sequence */
+	private final int length;
+
+	/**
+	 * Constructs a sequence over every byte of the buffer from index 0 up
+	 * to its limit.
+	 *
+	 * @param buffer
+	 * 			The buffer holding the characters
+	 */
+	AsciiCharSequence(ByteBuffer buffer) {
+		this(buffer, 0, buffer.limit());
+	}
+
+	/**
+	 * Constructs a sequence over length bytes of the buffer starting at offset.
+	 *
+	 * @param buffer
+	 * 			The buffer holding the characters
+	 * @param offset
+	 * 			Index in the buffer of the first character
+	 * @param length
+	 * 			Number of characters in the sequence
+	 */
+	private AsciiCharSequence(ByteBuffer buffer, int offset, int length) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * Returns the number of characters in the sequence.
+	 *
+	 * @return the length of the sequence
+	 */
+	@Override
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Returns the character at the given index.
+	 *
+	 * @param index
+	 * 			Index of the character
+	 * @return the byte at that index as a char
+	 * @throws IndexOutOfBoundsException
+	 * 			If index is negative or not less than length()
+	 */
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException();
+		}
+		return (char) (buffer.get(offset + index) & BYTE_MASK);
+	}
+
+	/**
+	 * Returns the characters from start up to end as a sequence over the
+	 * same buffer. No characters are copied.
+	 *
+	 * @param start
+	 * 			Index of the first character
+	 * @param end
+	 * 			Index after the last character
+	 * @return the characters from start up to end
+	 * @throws IndexOutOfBoundsException
+	 * 			If start or end are outside of the sequence or start is after end
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > length || start > end) {
+			throw new IndexOutOfBoundsException();
+		}
+		return new AsciiCharSequence(buffer, offset + start, end - start);
+	}
+
+	/**
+	 * Copies the characters into a new String. The bytes are decoded with
+	 * the default charset, the same as a Scanner reading the file would.
+	 *
+	 * @return the characters as a String
+	 */
+	@Override
+	public String toString() {
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = buffer.get(offset + i);
+		}
+		return new String(bytes, Charset.defaultCharset());
+	}
+}
@@ -0,0 +1,361 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Reads and writes binary snapshots of a catalog of Courses, so that a
+ * catalog parsed once from a course records file can be loaded again
+ * without parsing the text.
+ *
+ * A snapshot starts with a magic number, the format version, and the
+ * length and CRC-32 checksum of the course records file it was made from.
+ * Next is a table of each distinct String in the catalog, written once.
+ * Last are the Courses, each as the table indexes of its name, title,
+ * section, instructorId and meetingDays followed by its credits,
+ * startTime and endTime, all as 4 byte ints. A snapshot is only read
+ * if the records file still has the same length and checksum.
+ *
+ * A snapshot is written to a temporary file that is renamed over the
+ * snapshot file once it is complete, so a snapshot is never left half
+ * written. Every count and length in a snapshot is checked against the
+ * bytes left before it is used, and a snapshot must end after its last
+ * Course, so a damaged snapshot is rejected with an IOException and the
+ * records file is parsed instead.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CatalogSnapshotIO {
+
+	/** Number at the start of every snapshot, the characters "WSCS" */
+	private static final int MAGIC = 0x57534353;
+
+	/** Version of the snapshot format written by this class */
+	private static final int VERSION = 1;
+
+	/** Position of the name among the String fields of a Course */
+	private static final int NAME = 0;
+
+	/** Position of the title among the String fields of a Course */
+	private static final int TITLE = 1;
+
+	/** Position of the section among the String fields of a Course */
+	private static final int SECTION = 2;
+
+	/** Position of the instructorId among the String fields of a Course */
+	private static final int INSTRUCTOR_ID = 3;
+
+	/** Position of the meetingDays among the String fields of a Course */
+	private static final int MEETING_DAYS = 4;
+
+	/** Number of String fields in a Course */
+	private static final int STRING_FIELDS = 5;
+
+	/** Number of bytes of a Course in a snapshot: its String ids, credits, startTime and endTime */
+	private static final int COURSE_BYTES = (STRING_FIELDS + 3) * Integer.BYTES;
+
+	/**
+	 * Generates an ArrayList of the course records in the records file. If
+	 * the snapshot file is a current snapshot of the records file, the
+	 * catalog is read from it. Otherwise the records file is read with
+	 * CourseRecordIO and a new snapshot is written for the next load.
+	 *
+	 * The snapshot is given the checksum the records file had before it
+	 * was parsed, so if the file changes while it is parsed the snapshot
+	 * is out of date and is never read. If the snapshot can't be written,
+	 * the Courses are still returned and the next load parses the file.
+	 *
+	 * @param fileName
+	 * 			The file to read Course records from
+	 * @param snapshotFileName
+	 * 			The snapshot of the records file to read or write
+	 * @return an ArrayList of Course objects
+	 * 			List of valid Courses from the file provided
+	 * @throws FileNotFoundException
+	 * 			If the records file can't be found or read
+	 * @throws IOException
+	 * 			If the records file can't be read
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, String snapshotFileName)
+			throws IOException {
+		try {
+			return readCatalogSnapshot(snapshotFileName, fileName);
+		} catch (IOException e) {
+			//the snapshot is missing, out of date, or not valid
+		}
+		long[] source = readSourceChecksum(fileName);
+		ArrayList<Course> courses = CourseRecordIO.readCourseRecords(fileName);
+		try {
+			writeCatalogSnapshot(snapshotFileName, source, courses);
+		} catch (IOException e) {
+			//the catalog was read, so it is used without a snapshot
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns true if the snapshot file is a snapshot in this version's
+	 * format of the records file as it is now.
+	 *
+	 * @param snapshotFileName
+	 * 			The snapshot to check
+	 * @param fileName
+	 * 			The course records file the snapshot was made from
+	 * @return true if the snapshot can be read instead of the records file
+	 * @throws FileNotFoundException
+	 * 			If the records file can't be found or read
+	 * @throws IOException
+	 * 			If the records file can't be read
+	 */
+	public static boolean isSnapshotCurrent(String snapshotFileName, String fileName) throws IOException {
+		long[] source = readSourceChecksum(fileName);
+		try (DataInputStream in = new DataInputStream(new FileInputStream(snapshotFileName))) {
+			return in.readInt() == MAGIC && in.readInt() == VERSION
+					&& in.readLong() == source[0] && in.readLong() == source[1];
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the given Courses, which were read from the
+	 * records file, to the snapshot file. The snapshot is written to a
+	 * temporary file in the same directory, which is then renamed to the
+	 * snapshot file in one atomic step.
+	 *
+	 * @param snapshotFileName
+	 * 			The file to write the snapshot to
+	 * @param fileName
+	 * 			The course records file the Courses were read from
+	 * @param courses
+	 * 			The catalog to write
+	 * @throws IOException
+	 * 			If the records file can't be read or the snapshot can't be written
+	 */
+	public static void writeCatalogSnapshot(String snapshotFileName, String fileName, ArrayList<Course> courses)
+			throws IOException {
+		writeCatalogSnapshot(snapshotFileName, readSourceChecksum(fileName), courses);
+	}
+
+	/**
+	 * Writes a snapshot of the given Courses to the snapshot file, through
+	 * a temporary file that is renamed to the snapshot file.
+	 *
+	 * @param snapshotFileName
+	 * 			The file to write the snapshot to
+	 * @param source
+	 * 			The length and checksum of the records file the Courses
+	 * 			were read from
+	 * @param courses
+	 * 			The catalog to write
+	 * @throws IOException
+	 * 			If the snapshot can't be written
+	 */
+	private static void writeCatalogSnapshot(String snapshotFileName, long[] source, ArrayList<Course> courses)
+			throws IOException {
+		ArrayList<String> strings = new ArrayList<String>();
+		HashMap<String, Integer> stringIds = new HashMap<String, Integer>();
+		int[] ids = new int[courses.size() * STRING_FIELDS];
+		for (int i = 0; i < courses.size(); i++) {
+			Course c = courses.get(i);
+			ids[i * STRING_FIELDS + NAME] = stringId(c.getName(), strings, stringIds);
+			ids[i * STRING_FIELDS + TITLE] = stringId(c.getTitle(), strings, stringIds);
+			ids[i * STRING_FIELDS + SECTION] = stringId(c.getSection(), strings, stringIds);
+			ids[i * STRING_FIELDS + INSTRUCTOR_ID] = stringId(c.getInstructorId(), strings, stringIds);
+			ids[i * STRING_FIELDS + MEETING_DAYS] = stringId(c.getMeetingDays(), strings, stringIds);
+		}
+
+		Path snapshotFile = Paths.get(snapshotFileName).toAbsolutePath();
+		Path tempFile = CourseRecordIO.createTempFile(snapshotFile);
+		try {
+			writeCatalogSnapshot(tempFile, source, strings, ids, courses);
+			CourseRecordIO.replaceFile(tempFile, snapshotFile);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * Writes the snapshot to the given file.
+	 *
+	 * @param snapshotFile
+	 * 			The file to write the snapshot to
+	 * @param source
+	 * 			The length and checksum of the records file
+	 * @param strings
+	 * 			The table of Strings in the catalog
+	 * @param ids
+	 * 			The table ids of the String fields of each Course
+	 * @param courses
+	 * 			The catalog to write
+	 * @throws IOException
+	 * 			If the snapshot can't be written
+	 */
+	private static void writeCatalogSnapshot(Path snapshotFile, long[] source, ArrayList<String> strings,
+			int[] ids, ArrayList<Course> courses) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(snapshotFile.toFile())))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(source[0]);
+			out.writeLong(source[1]);
+			out.writeInt(strings.size());
+			for (int i = 0; i < strings.size(); i++) {
+				byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+			out.writeInt(courses.size());
+			for (int i = 0; i < courses.size(); i++) {
+				Course c = courses.get(i);
+				for (int j = 0; j < STRING_FIELDS; j++) {
+					out.writeInt(ids[i * STRING_FIELDS + j]);
+				}
+				out.writeInt(c.getCredits());
+				out.writeInt(c.getStartTime());
+				out.writeInt(c.getEndTime());
+			}
+		}
+	}
+
+	/**
+	 * Reads the catalog from a snapshot of the records file.
+	 *
+	 * @param snapshotFileName
+	 * 			The snapshot to read
+	 * @param fileName
+	 * 			The course records file the snapshot was made from
+	 * @return an ArrayList of the Courses in the snapshot
+	 * @throws FileNotFoundException
+	 * 			If either file can't be found or read
+	 * @throws IOException
+	 * 			If the snapshot is not a current snapshot of the records
+	 * 			file, is incomplete, or has a Course that is not valid
+	 */
+	public static ArrayList<Course> readCatalogSnapshot(String snapshotFileName, String fileName)
+			throws IOException {
+		long[] source = readSourceChecksum(fileName);
+		ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(Paths.get(snapshotFileName)));
+		try {
+			if (snapshot.getInt() != MAGIC || snapshot.getInt() != VERSION) {
+				throw new IOException("Not a catalog snapshot");
+			}
+			if (snapshot.getLong() != source[0] || snapshot.getLong() != source[1]) {
+				throw new IOException("Catalog snapshot is out of date");
+			}
+			//every String has at least its length
+			String[] strings = new String[readCount(snapshot, Integer.BYTES)];
+			for (int i = 0; i < strings.length; i++) {
+				int length = readCount(snapshot, 1);
+				strings[i] = new String(snapshot.array(), snapshot.position(), length, StandardCharsets.UTF_8);
+				snapshot.position(snapshot.position() + length);
+			}
+			int size = readCount(snapshot, COURSE_BYTES);
+			ArrayList<Course> courses = new ArrayList<Course>(size);
+			for (int i = 0; i < size; i++) {
+				String name = strings[snapshot.getInt()];
+				String title = strings[snapshot.getInt()];
+				String section = strings[snapshot.getInt()];
+				String instructorId = strings[snapshot.getInt()];
+				String meetingDays = strings[snapshot.getInt()];
+				int credits = snapshot.getInt();
+				int startTime = snapshot.getInt();
+				int endTime = snapshot.getInt();
+				courses.add(new Course(name, title, section, credits, instructorId, meetingDays,
+						startTime, endTime));
+			}
+			if (snapshot.hasRemaining()) {
+				throw new IOException("Catalog snapshot is not valid");
+			}
+			return courses;
+		} catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new IOException("Catalog snapshot is not valid", e);
+		}
+	}
+
+	/**
+	 * Reads a count of items from the snapshot, checking that it is not
+	 * negative and that the bytes left in the snapshot can hold that many.
+	 *
+	 * @param snapshot
+	 * 			The snapshot, positioned at the count
+	 * @param itemBytes
+	 * 			The fewest bytes each item takes
+	 * @return the count
+	 * @throws IOException
+	 * 			If the count is negative or too large for the snapshot
+	 */
+	private static int readCount(ByteBuffer snapshot, int itemBytes) throws IOException {
+		int count = snapshot.getInt();
+		if (count < 0 || (long) count * itemBytes > snapshot.remaining()) {
+			throw new IOException("Catalog snapshot is not valid");
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the id of the String in the table, adding it to the table if
+	 * it is not there yet.
+	 *
+	 * @param s
+	 * 			The String to find
+	 * @param strings
+	 * 			The table of Strings
+	 * @param stringIds
+	 * 			The id of each String in the table
+	 * @return the index of s in strings
+	 */
+	private static int stringId(String s, ArrayList<String> strings, HashMap<String, Integer> stringIds) {
+		Integer id = stringIds.get(s);
+		if (id == null) {
+			id = strings.size();
+			strings.add(s);
+			stringIds.put(s, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the length and CRC-32 checksum of the records file.
+	 *
+	 * @param fileName
+	 * 			The course records file
+	 * @return an array of the file's length followed by its checksum
+	 * @throws FileNotFoundException
+	 * 			If the file can't be found or read
+	 * @throws IOException
+	 * 			If the file can't be read
+	 */
+	private static long[] readSourceChecksum(String fileName) throws IOException {
+		CRC32 checksum = new CRC32();
+		long length;
+		try (FileChannel channel = new FileInputStream(fileName).getChannel()) {
+			length = channel.size();
+			long position = 0;
+			while (position < length) {
+				long window = Math.min(length - position, Integer.MAX_VALUE);
+				checksum.update(channel.map(MapMode.READ_ONLY, position, window));
+				position += window;
+			}
+		}
+		return new long[] {length, checksum.getValue()};
+	}
+}
@@ -1,13 +1,38 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 
-import java.io.File;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
@@ -19,6 +44,24 @@ import edu.ncsu.csc216.wolf_scheduler.course.Course;
  */
 public class CourseRecordIO {
 
+	/** Size in bytes of the buffer used by writeCourseRecords() */
+	private static final int WRITE_BUFFER_LENGTH = 64 * 1024;
+	
+	/** Line separator written after each record, the same as println() */
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(Charset.defaultCharset());
+	
+	/** Suffix of the temporary files written by writeCourseRecordsAtomically() and CatalogSnapshotIO */
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+	
+	/** Most bytes of a file that are mapped into memory at once */
+	private static final long MAX_MAPPED_LENGTH = Integer.MAX_VALUE;
+	
+	/** Fewest bytes of records given to each task by readCourseRecordsParallel() */
+	private static final int MIN_CHUNK_LENGTH = 64 * 1024;
+	
+	/** Number of chunks made for each thread by readCourseRecordsParallel() */
+	private static final int CHUNKS_PER_THREAD = 4;
+
     /**
      * Generates an ArrayList of the course records read from the file.
      * If there are any invalid courses in the file, they are ignored.
@@ -37,80 +80,386 @@ public class CourseRecordIO {
 	public static ArrayList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
 	    Scanner fileReader = new Scanner(new FileInputStream(fileName));
 	    ArrayList<Course> courses = new ArrayList<Course>();
+	    HashSet<String> courseKeys = new HashSet<String>();
+	    CourseRecordParser parser = new CourseRecordParser();
 	    while (fileReader.hasNextLine()) {
-	        try {
-	            Course course = readCourse(fileReader.nextLine());
-	            boolean duplicate = false;
-	            for (int i = 0; i < courses.size(); i++) {
-	                Course c = courses.get(i);
-	                if (course.getName().equals(c.getName()) &&
-	                        course.getSection().equals(c.getSection())) {
-	                    //it's a duplicate
-	                    duplicate = true;
-	                }
-	            }
-	            if (!duplicate) {
-	                courses.add(course);
-	            }
-	        } catch (IllegalArgumentException e) {
+	        if (parser.parse(fileReader.nextLine()) != CourseRecordParser.VALID) {
 	            //skip the line
+	            continue;
 	        }
+	        addCourse(courses, courseKeys, parser.getCourse());
 	    }
 	    fileReader.close();
 	    return courses;
 	}
 
 	/**
-	 * Processes a line from the file and returns
-	 * a constructed Course object from it.
+	 * Generates an ArrayList of the course records read from the file, the
+	 * same as readCourseRecords(), by mapping the file into memory. Records
+	 * are parsed in place in the mapped bytes, and a field only becomes a
+	 * String when a valid Course is made from its line. This is faster for
+	 * large catalogs, but records must be ASCII text.
+	 * 
+	 * @param fileName 
+	 * 			The file to read Course records from
+	 * @return an ArrayList of Course objects
+	 * 			List of valid Courses from the file provided
+	 * @throws FileNotFoundException 
+	 * 			If the file can't be found or read
+	 * @throws IOException 
+	 * 			If the file can't be mapped into memory
+	 */
+	public static ArrayList<Course> readCourseRecordsMapped(String fileName) throws IOException {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		HashSet<String> courseKeys = new HashSet<String>();
+		CourseRecordParser parser = new CourseRecordParser();
+		try (FileChannel channel = new FileInputStream(fileName).getChannel()) {
+			long size = channel.size();
+			long position = 0;
+			//files larger than one mapping are read a window at a time,
+			//each window starting at the first line not yet read
+			while (position < size) {
+				long length = Math.min(size - position, MAX_MAPPED_LENGTH);
+				boolean lastWindow = position + length == size;
+				MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, length);
+				int read = readLines(new AsciiCharSequence(buffer), lastWindow, parser, courses, courseKeys);
+				if (read == 0) {
+					throw new IOException("Course record is too long");
+				}
+				position += read;
+			}
+		}
+		return courses;
+	}
+
+	/**
+	 * Generates an ArrayList of the course records read from the file, the
+	 * same as readCourseRecordsMapped(), but parses the file on all the
+	 * threads of the common ForkJoinPool. The mapped file is split into
+	 * chunks that start and end on line endings, and each chunk is parsed
+	 * by its own task. The Courses from the chunks are then joined in file
+	 * order and duplicates are removed, so the first Course in the file
+	 * with a name and section is the one that is kept.
+	 * 
+	 * @param fileName 
+	 * 			The file to read Course records from
+	 * @return an ArrayList of Course objects
+	 * 			List of valid Courses from the file provided
+	 * @throws FileNotFoundException 
+	 * 			If the file can't be found or read
+	 * @throws IOException 
+	 * 			If the file can't be mapped into memory
+	 */
+	public static ArrayList<Course> readCourseRecordsParallel(String fileName) throws IOException {
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		ArrayList<Course> courses = new ArrayList<Course>();
+		HashSet<String> courseKeys = new HashSet<String>();
+		try (FileChannel channel = new FileInputStream(fileName).getChannel()) {
+			long size = channel.size();
+			long position = 0;
+			while (position < size) {
+				long length = Math.min(size - position, MAX_MAPPED_LENGTH);
+				boolean lastWindow = position + length == size;
+				MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, length);
+				CharSequence records = new AsciiCharSequence(buffer);
+				int read = lastWindow ? records.length() : nextLineStart(records, records.length(), true);
+				if (read == 0) {
+					throw new IOException("Course record is too long");
+				}
+
+				int chunks = Math.max(1, Math.min(read / MIN_CHUNK_LENGTH,
+						pool.getParallelism() * CHUNKS_PER_THREAD));
+				ArrayList<ChunkParser> tasks = new ArrayList<ChunkParser>(chunks);
+				int chunkStart = 0;
+				for (int i = 1; i <= chunks; i++) {
+					int chunkEnd = i == chunks ? read
+							: nextLineStart(records, (int) ((long) read * i / chunks), false);
+					if (chunkEnd > chunkStart) {
+						tasks.add(new ChunkParser(records.subSequence(chunkStart, chunkEnd)));
+						pool.execute(tasks.get(tasks.size() - 1));
+						chunkStart = chunkEnd;
+					}
+				}
+				for (int i = 0; i < tasks.size(); i++) {
+					ArrayList<Course> chunk = tasks.get(i).join();
+					for (int j = 0; j < chunk.size(); j++) {
+						addCourse(courses, courseKeys, chunk.get(j));
+					}
+				}
+				position += read;
+			}
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns a Stream of the course records in the file that reads and
+	 * parses each line only when the next Course is needed, so the whole
+	 * catalog is never held in memory. Invalid lines are skipped. If
+	 * removeDuplicates is true, only the first Course in the file with a
+	 * name and section is in the Stream, which means the name and section
+	 * of each Course already seen are kept until the Stream is closed.
+	 * 
+	 * The Stream holds the file open, so it must be closed, for example
+	 * with try-with-resources. If the file can't be read part way through,
+	 * an UncheckedIOException is thrown by the Stream operation.
+	 * 
+	 * @param fileName 
+	 * 			The file to read Course records from
+	 * @param removeDuplicates 
+	 * 			True to skip Courses with the same name and section as
+	 * 			an earlier Course
+	 * @return a Stream of the valid Courses from the file provided
+	 * @throws FileNotFoundException 
+	 * 			If the file can't be found or read
+	 */
+	public static Stream<Course> streamCourseRecords(String fileName, boolean removeDuplicates)
+			throws FileNotFoundException {
+		BufferedReader fileReader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName)));
+		CourseRecordIterator courses = new CourseRecordIterator(fileReader, removeDuplicates);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(courses,
+				Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(courses::close);
+	}
+
+	/**
+	 * Iterator over the valid Courses read from a file, one line at a time,
+	 * for streamCourseRecords().
 	 * 
-	 * @param line 
-	 * 			The line that is being processed 
-	 * @return Course 
-	 * 			Course gets constructed  from the input parameter line
-	 * @throws IllegalArgumentException 
-	 * 			If there are  more characters than "A" and if "A" exists in the 
-	 * 			line, and if the course is in an invalid format.
-	 * 			If Course is in an invalid format.
+	 * @author Sanjana Cheerla
 	 */
-    private static Course readCourse(String line) {
-
-    	Scanner lineScanner = new Scanner(line);
-    	lineScanner.useDelimiter(",");
-
-		try {
-			String name = lineScanner.next();
-			String title = lineScanner.next();
-			String section = lineScanner.next();
-			int credits = lineScanner.nextInt();
-			String instructorId = lineScanner.next();
-			String meetingDays = lineScanner.next();
-			int startTime = 0;
-			int endTime = 0;
-			
-			if (meetingDays.equals("A")) {
-				if (lineScanner.hasNext()) {
-					lineScanner.close();
-					throw new IllegalArgumentException();
-				} else {
-					lineScanner.close();
-					Course c = new Course(name, title, section, credits, instructorId, meetingDays);
-					return c;
+	private static class CourseRecordIterator implements Iterator<Course> {
+
+		/** Reader for the lines of the file */
+		private final BufferedReader fileReader;
+
+		/** The parser to use for each line */
+		private final CourseRecordParser parser = new CourseRecordParser();
+
+		/** The keys of the Courses already returned, or null to return duplicates */
+		private final HashSet<String> courseKeys;
+
+		/** The Course that next() will return, or null if it has not been read */
+		private Course next;
+
+		/**
+		 * Constructs an iterator over the lines of the reader.
+		 * 
+		 * @param fileReader 
+		 * 			Reader for the lines of the file
+		 * @param removeDuplicates 
+		 * 			True to skip Courses with the same name and section as
+		 * 			an earlier Course
+		 */
+		CourseRecordIterator(BufferedReader fileReader, boolean removeDuplicates) {
+			this.fileReader = fileReader;
+			this.courseKeys = removeDuplicates ? new HashSet<String>() : null;
+		}
+
+		/**
+		 * Reads lines until a valid Course is found or the file ends.
+		 * 
+		 * @return true if there is another Course in the file
+		 * @throws UncheckedIOException 
+		 * 			If the file can't be read
+		 */
+		@Override
+		public boolean hasNext() {
+			try {
+				String line;
+				while (next == null && (line = fileReader.readLine()) != null) {
+					if (parser.parse(line) == CourseRecordParser.VALID
+							&& (courseKeys == null || courseKeys.add(courseKey(parser.getCourse())))) {
+						next = parser.getCourse();
+					}
 				}
-			} 
-			
-			startTime = lineScanner.nextInt();
-			endTime = lineScanner.nextInt();
-			lineScanner.close();
-			Course c = new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime);
-			return c;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return next != null;
+		}
+
+		/**
+		 * Returns the next valid Course in the file.
+		 * 
+		 * @return the next Course
+		 * @throws NoSuchElementException 
+		 * 			If there are no more Courses in the file
+		 */
+		@Override
+		public Course next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Course course = next;
+			next = null;
+			return course;
+		}
+
+		/**
+		 * Closes the file.
+		 * 
+		 * @throws UncheckedIOException 
+		 * 			If the file can't be closed
+		 */
+		void close() {
+			try {
+				fileReader.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the first character of the line after the one
+	 * that holds the character at index. If backward is true, the index of
+	 * the first character after the last line ending before index is
+	 * returned instead.
+	 * 
+	 * @param records 
+	 * 			The characters to search
+	 * @param index 
+	 * 			Index to search from
+	 * @param backward 
+	 * 			True to search for the line ending before index
+	 * @return index of the start of a line, or 0 or the length of the
+	 * 			records if there is no line ending in that direction
+	 */
+	private static int nextLineStart(CharSequence records, int index, boolean backward) {
+		int length = records.length();
+		if (backward) {
+			int i = index - 1;
+			while (i >= 0 && records.charAt(i) != '\n' && records.charAt(i) != '\r') {
+				i--;
+			}
+			return i + 1;
+		}
+		int i = index;
+		while (i < length && records.charAt(i) != '\n' && records.charAt(i) != '\r') {
+			i++;
+		}
+		if (i < length && records.charAt(i) == '\r' && i + 1 < length && records.charAt(i + 1) == '\n') {
+			i++;
+		}
+		return Math.min(i + 1, length);
+	}
+
+	/**
+	 * Task that parses one chunk of records for readCourseRecordsParallel().
+	 * The chunk holds whole lines, and every valid Course in it is returned,
+	 * including duplicates, since a duplicate can only be found once the
+	 * chunks before it are known.
+	 * 
+	 * @author Sanjana Cheerla
+	 */
+	private static class ChunkParser extends RecursiveTask<ArrayList<Course>> {
+
+		/** ID number used for object serialization. */
+		private static final long serialVersionUID = 1L;
+
+		/** The lines to parse */
+		private final transient CharSequence records;
+
+		/**
+		 * Constructs a task to parse the given lines.
+		 * 
+		 * @param records 
+		 * 			The lines to parse
+		 */
+		ChunkParser(CharSequence records) {
+			this.records = records;
+		}
+
+		/**
+		 * Parses the lines of the chunk.
+		 * 
+		 * @return every valid Course in the chunk, in order
+		 */
+		@Override
+		protected ArrayList<Course> compute() {
+			ArrayList<Course> chunk = new ArrayList<Course>();
+			readLines(records, true, new CourseRecordParser(), chunk, null);
+			return chunk;
+		}
+	}
+
+	/**
+	 * Parses each line of records and adds the valid Courses to courses.
+	 * Lines end with a newline, a carriage return, or both. If the records
+	 * are not the end of the file, the characters after the last line
+	 * ending are not read, since they may only be part of a line.
+	 * 
+	 * @param records 
+	 * 			The characters to read lines from
+	 * @param endOfFile 
+	 * 			True if the records are the end of the file
+	 * @param parser 
+	 * 			The parser to use for each line
+	 * @param courses 
+	 * 			The list to add valid Courses to
+	 * @param courseKeys 
+	 * 			The keys of the Courses already in courses, or null
+	 * 			to add duplicates as well
+	 * @return the number of characters that were read
+	 */
+	private static int readLines(CharSequence records, boolean endOfFile, CourseRecordParser parser,
+			ArrayList<Course> courses, HashSet<String> courseKeys) {
+		int length = records.length();
+		int lineStart = 0;
+		for (int i = 0; i < length; i++) {
+			char c = records.charAt(i);
+			if (c != '\n' && c != '\r') {
+				continue;
+			}
+			if (parser.parse(records, lineStart, i) == CourseRecordParser.VALID) {
+				addCourse(courses, courseKeys, parser.getCourse());
+			}
+			if (c == '\r' && i + 1 < length && records.charAt(i + 1) == '\n') {
+				i++;
+			}
+			lineStart = i + 1;
 		}
+		if (endOfFile && lineStart < length) {
+			if (parser.parse(records, lineStart, length) == CourseRecordParser.VALID) {
+				addCourse(courses, courseKeys, parser.getCourse());
+			}
+			lineStart = length;
+		}
+		return lineStart;
+	}
 
-		catch (NoSuchElementException e) {
-			throw new IllegalArgumentException();
+	/**
+	 * Adds the Course to courses, unless a Course with the same name and
+	 * section has already been added. If courseKeys is null, the Course
+	 * is always added.
+	 * 
+	 * @param courses 
+	 * 			The list to add the Course to
+	 * @param courseKeys 
+	 * 			The keys of the Courses already in courses, or null
+	 * @param course 
+	 * 			The Course to add
+	 */
+	private static void addCourse(ArrayList<Course> courses, HashSet<String> courseKeys, Course course) {
+		//only the first Course with a name and section is kept
+		if (courseKeys == null || courseKeys.add(courseKey(course))) {
+			courses.add(course);
 		}
 	}
 
+	/**
+	 * Returns the key used to find duplicate Courses, made from the
+	 * Course's name and section. Neither can contain a comma, so the
+	 * key is unique for each name and section.
+	 * 
+	 * @param course 
+	 * 			The Course to make a key for
+	 * @return the name and section key for the Course
+	 */
+	private static String courseKey(Course course) {
+		return course.getName() + "," + course.getSection();
+	}
+
 	/**
      * Writes the given list of Courses to the given fileName file
      * Source Method: GP1 Guided Task: Working with the Java Libraries Java 
@@ -124,14 +473,151 @@ public class CourseRecordIO {
      * 			If the file cannot be overwritten.
      */
     public static void writeCourseRecords(String fileName, ArrayList<Course> courses) throws IOException {
-    	PrintStream fileWriter = new PrintStream(new File(fileName));
+    	try (OutputStream fileWriter = new BufferedOutputStream(new FileOutputStream(fileName), WRITE_BUFFER_LENGTH)) {
+    		writeCourseRecords(fileWriter, courses);
+    	}
+    }
 
-    	for (int i = 0; i < courses.size(); i++) {
-    	    fileWriter.println(courses.get(i).toString());
+    /**
+     * Writes the given list of Courses to the given fileName file so that
+     * the file is either left as it was or has every record, even if the
+     * program stops part way through. The records are written to a new
+     * temporary file with a unique name in the same directory, which is
+     * then renamed to fileName in one atomic step, so exports of the same
+     * file at the same time never write to the same temporary file. If
+     * the file system can't rename atomically, the file is replaced with
+     * a normal move. If sync is true, the directory is also forced to the
+     * storage device after the rename, so the new name survives a crash.
+     * 
+     * @param fileName 
+     * 			The file to write course records to.
+     * @param courses 
+     * 			The ArrayList of Course objects being written to the file.
+     * @param sync 
+     * 			True to force the records to the storage device before
+     * 			the temporary file is renamed, and the rename after
+     * @throws IOException 
+     * 			If the file cannot be written or replaced.
+     */
+    public static void writeCourseRecordsAtomically(String fileName, ArrayList<Course> courses, boolean sync)
+    		throws IOException {
+    	Path file = Paths.get(fileName).toAbsolutePath();
+    	Path tempFile = createTempFile(file);
+    	try {
+    		try (FileOutputStream fileStream = new FileOutputStream(tempFile.toFile());
+    				OutputStream fileWriter = new BufferedOutputStream(fileStream, WRITE_BUFFER_LENGTH)) {
+    			writeCourseRecords(fileWriter, courses);
+    			if (sync) {
+    				fileWriter.flush();
+    				fileStream.getFD().sync();
+    			}
+    		}
+    		replaceFile(tempFile, file);
+    		if (sync) {
+    			syncDirectory(file.getParent());
+    		}
+    	} finally {
+    		Files.deleteIfExists(tempFile);
+    	}
+    }
+
+    /**
+     * Creates a new empty temporary file with a unique name in the same
+     * directory as the given file, to be renamed to it by replaceFile().
+     * The temporary file is created with the default permissions, the
+     * same as a file written with a FileOutputStream, and if the given
+     * file exists its POSIX permissions are copied, so the file keeps
+     * its permissions when it is replaced.
+     * 
+     * @param file 
+     * 			The absolute path of the file the temporary file will replace
+     * @return the path of the temporary file
+     * @throws IOException 
+     * 			If the temporary file cannot be created.
+     */
+    static Path createTempFile(Path file) throws IOException {
+    	Path tempFile;
+    	while (true) {
+    		tempFile = file.resolveSibling(file.getFileName() + "."
+    				+ Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + TEMP_FILE_SUFFIX);
+    		try {
+    			Files.createFile(tempFile);
+    			break;
+    		} catch (FileAlreadyExistsException e) {
+    			//another file has the name, so try a new one
+    		}
+    	}
+    	try {
+    		Files.setPosixFilePermissions(tempFile, Files.getPosixFilePermissions(file));
+    	} catch (NoSuchFileException | UnsupportedOperationException e) {
+    		//a new file, or a file system without POSIX permissions, keeps the defaults
+    	} catch (IOException e) {
+    		Files.deleteIfExists(tempFile);
+    		throw e;
+    	}
+    	return tempFile;
+    }
+
+    /**
+     * Renames the temporary file to the given file, replacing it, in one
+     * atomic step. If the file system can't rename atomically, the file is
+     * replaced with a normal move.
+     * 
+     * @param tempFile 
+     * 			The temporary file holding the new contents
+     * @param file 
+     * 			The file to replace
+     * @throws IOException 
+     * 			If the file cannot be replaced.
+     */
+    static void replaceFile(Path tempFile, Path file) throws IOException {
+    	try {
+    		Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    	} catch (AtomicMoveNotSupportedException e) {
+    		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    	}
+    }
+
+    /**
+     * Forces the entries of the directory, such as a file just renamed
+     * into it, to the storage device. Some platforms, such as Windows,
+     * can't open a directory to force it, so the directory is left as it
+     * is there.
+     * 
+     * @param directory 
+     * 			The directory to force
+     * @throws IOException 
+     * 			If the directory was opened but cannot be forced.
+     */
+    private static void syncDirectory(Path directory) throws IOException {
+    	FileChannel channel;
+    	try {
+    		channel = FileChannel.open(directory, StandardOpenOption.READ);
+    	} catch (IOException e) {
+    		return;
+    	}
+    	try (FileChannel directoryChannel = channel) {
+    		directoryChannel.force(true);
     	}
+    }
 
-    	fileWriter.close();
-        
+    /**
+     * Writes the given list of Courses to the stream. Each Course copies
+     * its cached record bytes into the stream's buffer, so no String is
+     * made for a Course that has been written before.
+     * 
+     * @param fileWriter 
+     * 			The stream to write course records to.
+     * @param courses 
+     * 			The ArrayList of Course objects being written.
+     * @throws IOException 
+     * 			If the records cannot be written.
+     */
+    private static void writeCourseRecords(OutputStream fileWriter, ArrayList<Course> courses) throws IOException {
+    	for (int i = 0; i < courses.size(); i++) {
+    		courses.get(i).writeRecord(fileWriter);
+    		fileWriter.write(LINE_SEPARATOR);
+    	}
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Parses Course records from comma separated lines without a Scanner.
+ * The fields of a line are found by walking its characters once, and
+ * the credits and times are parsed as they are read. Instead of throwing
+ * an exception for a bad line, parse() returns a result code.
+ *
+ * A parser keeps the field positions of the last line between calls, and
+ * a StringPool of the String fields it has made, so Courses from the same
+ * parser share one String for each repeated value. One parser should be
+ * reused for every line of a file. A parser must not be shared between
+ * threads.
+ *
+ * @author Sanjana Cheerla
+ */
+final class CourseRecordParser {
+
+	/** Result code for a line that was made into a Course */
+	static final int VALID = 0;
+
+	/** Result code for a line that does not have the fields of a Course record */
+	static final int MALFORMED = 1;
+
+	/** Result code for a line whose fields are rejected by Course */
+	static final int INVALID = 2;
+
+	/** Most fields read from a line, any after the end time are ignored */
+	private static final int MAX_FIELDS = 8;
+
+	/** Number of fields in a record for an arranged Course */
+	private static final int ARRANGED_FIELDS = 6;
+
+	/** Most significant digits read for a number, so that it cannot overflow */
+	private static final int MAX_DIGITS = 9;
+
+	/** Position of the name field */
+	private static final int NAME = 0;
+
+	/** Position of the title field */
+	private static final int TITLE = 1;
+
+	/** Position of the section field */
+	private static final int SECTION = 2;
+
+	/** Position of the credits field */
+	private static final int CREDITS = 3;
+
+	/** Position of the instructorId field */
+	private static final int INSTRUCTOR_ID = 4;
+
+	/** Position of the meetingDays field */
+	private static final int MEETING_DAYS = 5;
+
+	/** Position of the startTime field */
+	private static final int START_TIME = 6;
+
+	/** Position of the endTime field */
+	private static final int END_TIME = 7;
+
+	/** Base of the numbers in a record */
+	private static final int RADIX = 10;
+
+	/** Value returned by parseInt() when a field is not a number */
+	private static final int NOT_A_NUMBER = Integer.MIN_VALUE;
+
+	/** Index of the first character of each field */
+	private final int[] fieldStarts = new int[MAX_FIELDS];
+
+	/** Index after the last character of each field */
+	private final int[] fieldEnds = new int[MAX_FIELDS];
+
+	/** Strings made from the fields of every line parsed */
+	private final StringPool strings = new StringPool();
+
+	/** The Course made from the last valid line */
+	private Course course;
+
+	/**
+	 * Parses a whole line as a Course record.
+	 *
+	 * @param line
+	 * 			The line to parse
+	 * @return VALID, MALFORMED, or INVALID
+	 */
+	int parse(CharSequence line) {
+		return parse(line, 0, line.length());
+	}
+
+	/**
+	 * Parses the characters of seq from start up to end as a Course
+	 * record. If VALID is returned, the Course is available from
+	 * getCourse() until the next call to parse().
+	 *
+	 * Like the Scanner this replaces, a single comma at the start or
+	 * end of the line is skipped, and fields after the end time are
+	 * ignored. An arranged Course must not have any fields after its
+	 * meeting days.
+	 *
+	 * @param seq
+	 * 			The characters that hold the line
+	 * @param start
+	 * 			Index of the first character of the line
+	 * @param end
+	 * 			Index after the last character of the line
+	 * @return VALID, MALFORMED, or INVALID
+	 */
+	int parse(CharSequence seq, int start, int end) {
+		course = null;
+		if (start < end && seq.charAt(start) == ',') {
+			start++;
+		}
+		if (start < end && seq.charAt(end - 1) == ',') {
+			end--;
+		}
+		if (start == end) {
+			return MALFORMED;
+		}
+
+		int fields = 0;
+		int fieldStart = start;
+		for (int i = start; i <= end && fields < MAX_FIELDS; i++) {
+			if (i == end || seq.charAt(i) == ',') {
+				fieldStarts[fields] = fieldStart;
+				fieldEnds[fields] = i;
+				fields++;
+				fieldStart = i + 1;
+			}
+		}
+		if (fields < ARRANGED_FIELDS) {
+			return MALFORMED;
+		}
+
+		int credits = parseInt(seq, CREDITS);
+		if (credits == NOT_A_NUMBER) {
+			return MALFORMED;
+		}
+
+		boolean arranged = fieldEnds[MEETING_DAYS] - fieldStarts[MEETING_DAYS] == 1
+				&& seq.charAt(fieldStarts[MEETING_DAYS]) == 'A';
+		int startTime = 0;
+		int endTime = 0;
+		if (arranged) {
+			if (fields != ARRANGED_FIELDS) {
+				return MALFORMED;
+			}
+		} else {
+			if (fields != MAX_FIELDS) {
+				return MALFORMED;
+			}
+			startTime = parseInt(seq, START_TIME);
+			endTime = parseInt(seq, END_TIME);
+			if (startTime == NOT_A_NUMBER || endTime == NOT_A_NUMBER) {
+				return MALFORMED;
+			}
+		}
+
+		try {
+			course = new Course(field(seq, NAME), field(seq, TITLE), field(seq, SECTION), credits,
+					field(seq, INSTRUCTOR_ID), field(seq, MEETING_DAYS), startTime, endTime);
+		} catch (IllegalArgumentException e) {
+			return INVALID;
+		}
+		return VALID;
+	}
+
+	/**
+	 * Returns the Course made by the last call to parse(), or null
+	 * if that line was not VALID.
+	 *
+	 * @return the last parsed Course
+	 */
+	Course getCourse() {
+		return course;
+	}
+
+	/**
+	 * Returns the given field of the last line as a String from the
+	 * parser's pool.
+	 *
+	 * @param seq
+	 * 			The characters that hold the line
+	 * @param field
+	 * 			Position of the field in the line
+	 * @return the field's characters as a String
+	 */
+	private String field(CharSequence seq, int field) {
+		return strings.intern(seq, fieldStarts[field], fieldEnds[field]);
+	}
+
+	/**
+	 * Parses the given field of the last line as a decimal integer with
+	 * an optional sign. Leading zeros are skipped before the digits are
+	 * counted, so a number like 0000000003 is read as 3, the same as
+	 * Scanner.nextInt() would.
+	 *
+	 * @param seq
+	 * 			The characters that hold the line
+	 * @param field
+	 * 			Position of the field in the line
+	 * @return the value of the field, or NOT_A_NUMBER if it is not an integer
+	 */
+	private int parseInt(CharSequence seq, int field) {
+		int i = fieldStarts[field];
+		int end = fieldEnds[field];
+		boolean negative = false;
+		if (i < end && (seq.charAt(i) == '-' || seq.charAt(i) == '+')) {
+			negative = seq.charAt(i) == '-';
+			i++;
+		}
+		if (i == end) {
+			return NOT_A_NUMBER;
+		}
+		while (i < end - 1 && seq.charAt(i) == '0') {
+			i++;
+		}
+		if (end - i > MAX_DIGITS) {
+			return NOT_A_NUMBER;
+		}
+		int value = 0;
+		for (; i < end; i++) {
+			char digit = seq.charAt(i);
+			if (digit < '0' || digit > '9') {
+				return NOT_A_NUMBER;
+			}
+			value = value * RADIX + (digit - '0');
+		}
+		return negative ? -value : value;
+	}
+}
@@ -0,0 +1,150 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Pool of Strings for one catalog load, so that a value repeated on many
+ * lines, like a title or instructorId, is one String shared by every
+ * Course instead of a new String for each line. A value is looked up by
+ * the characters of the line that hold it, so a String is only made the
+ * first time a value is seen.
+ *
+ * The pool is an open addressing hash table that uses the same hash as
+ * String.hashCode(). A pool must not be shared between threads.
+ *
+ * An AsciiCharSequence has one char for each byte, so a value with
+ * non-ASCII characters has different chars than the String it decodes
+ * to. Such a value is decoded before it is looked up, so it is pooled by
+ * its decoded characters like any other. Every other CharSequence already
+ * holds decoded characters and is looked up as it is.
+ *
+ * @author Sanjana Cheerla
+ */
+final class StringPool {
+
+	/** Number of slots in a new pool, a power of two */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Multiplier of the String hash */
+	private static final int HASH_PRIME = 31;
+
+	/** Largest ASCII character */
+	private static final char MAX_ASCII = 0x7F;
+
+	/** The pooled Strings, or null for an empty slot */
+	private String[] table = new String[INITIAL_CAPACITY];
+
+	/** Number of Strings in the pool */
+	private int size;
+
+	/**
+	 * Returns the pooled String with the characters of seq from start up
+	 * to end, adding a new String to the pool if there is none.
+	 *
+	 * @param seq
+	 * 			The characters that hold the value
+	 * @param start
+	 * 			Index of the first character of the value
+	 * @param end
+	 * 			Index after the last character of the value
+	 * @return the String for the value
+	 */
+	String intern(CharSequence seq, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			char c = seq.charAt(i);
+			if (c > MAX_ASCII && seq instanceof AsciiCharSequence) {
+				String value = seq.subSequence(start, end).toString();
+				return intern(value, 0, value.length(), value.hashCode());
+			}
+			hash = HASH_PRIME * hash + c;
+		}
+		return intern(seq, start, end, hash);
+	}
+
+	/**
+	 * Returns the pooled String with the characters of seq from start up
+	 * to end, which have the given hash, adding a new String to the pool
+	 * if there is none.
+	 *
+	 * @param seq
+	 * 			The decoded characters that hold the value
+	 * @param start
+	 * 			Index of the first character of the value
+	 * @param end
+	 * 			Index after the last character of the value
+	 * @param hash
+	 * 			The String hash of the characters
+	 * @return the String for the value
+	 */
+	private String intern(CharSequence seq, int start, int end, int hash) {
+		int mask = table.length - 1;
+		int slot = spread(hash) & mask;
+		while (table[slot] != null) {
+			String s = table[slot];
+			if (s.hashCode() == hash && matches(s, seq, start, end)) {
+				return s;
+			}
+			slot = (slot + 1) & mask;
+		}
+		String s = seq.subSequence(start, end).toString();
+		table[slot] = s;
+		size++;
+		if (size * 2 > table.length) {
+			grow();
+		}
+		return s;
+	}
+
+	/**
+	 * Returns true if s has the same characters as seq from start up to end.
+	 *
+	 * @param s
+	 * 			The pooled String
+	 * @param seq
+	 * 			The characters that hold the value
+	 * @param start
+	 * 			Index of the first character of the value
+	 * @param end
+	 * 			Index after the last character of the value
+	 * @return true if the characters are the same
+	 */
+	private static boolean matches(String s, CharSequence seq, int start, int end) {
+		if (s.length() != end - start) {
+			return false;
+		}
+		for (int i = 0; i < s.length(); i++) {
+			if (s.charAt(i) != seq.charAt(start + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Mixes the high bits of a hash into the low bits used to pick a slot.
+	 *
+	 * @param hash
+	 * 			The String hash
+	 * @return the mixed hash
+	 */
+	private static int spread(int hash) {
+		return hash ^ (hash >>> (Integer.SIZE / 2));
+	}
+
+	/**
+	 * Doubles the number of slots and moves every String into the new table.
+	 */
+	private void grow() {
+		String[] old = table;
+		table = new String[old.length * 2];
+		int mask = table.length - 1;
+		for (int i = 0; i < old.length; i++) {
+			if (old[i] != null) {
+				int slot = spread(old[i].hashCode()) & mask;
+				while (table[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = old[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+/**
+ * Result of one course in a batch passed to WolfScheduler.addCourses()
+ * or WolfScheduler.removeCourses(). A batch is applied only if every
+ * course in it can be, so if any course has a failing status, the valid
+ * ones are NOT_APPLIED.
+ *
+ * @author Sanjana Cheerla
+ */
+public enum BatchStatus {
+
+	/** The course was added to the schedule */
+	ADDED,
+
+	/** The course was removed from the schedule */
+	REMOVED,
+
+	/** The course was valid, but another course in the batch was not, so nothing was changed */
+	NOT_APPLIED,
+
+	/** The entry is not a name and section */
+	INVALID,
+
+	/** The course is not in the course catalog */
+	NOT_IN_CATALOG,
+
+	/** A course with the same name is in the schedule or earlier in the batch */
+	ALREADY_ENROLLED,
+
+	/** The course conflicts with the schedule or a course earlier in the batch */
+	CONFLICT,
+
+	/** The section has no open seat, or students are on its waitlist */
+	FULL,
+
+	/** The course is not in the schedule */
+	NOT_SCHEDULED
+}
@@ -0,0 +1,404 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Cache of the catalogs read from course records files, shared by every
+ * WolfScheduler in the process. A file is parsed once, and each
+ * WolfScheduler made from it references the same catalog, so a
+ * WolfScheduler only has to hold its own schedule. Catalogs do not change
+ * after they are made, so they can be read by many threads at once.
+ *
+ * A cached catalog is used while the file has the same last modified time,
+ * length and CRC-32 checksum as when it was read, so a file rewritten with
+ * the same length within the resolution of its last modified time is
+ * still seen as changed. Checksumming the file costs one pass over its
+ * bytes, which is far less than parsing it again. Once the file changes,
+ * the next caller reads it again and the new catalog replaces the old one
+ * in the cache. Sections that did not change keep their Course objects
+ * from the old catalog.
+ * Threads asking for the same file while it is being read wait for that
+ * read instead of starting their own. The file is read by the thread that
+ * put its entry in the cache, after the entry is in place, so reading a
+ * large file never holds up the cache for other files.
+ *
+ * At most MAX_CATALOGS catalogs are cached; when another file is read,
+ * the catalog used least recently is dropped from the cache. Schedulers
+ * that reference a dropped catalog keep it.
+ *
+ * Only catalogs of the default kind, ListCourseCatalog, are cached. A
+ * WolfScheduler made from another kind of catalog reads the file itself
+ * when it reloads, so it keeps its kind of catalog.
+ *
+ * Each file also has a SeatTable that schedulers can share by being
+ * given it when they are made; a scheduler made from just a file name
+ * has a seat table of its own. The shared seat table is kept by
+ * file rather than by catalog, so enrollment counts are kept when the
+ * catalog is read again, and only weakly, so it is dropped once no
+ * scheduler uses it.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CatalogCache {
+
+	/** Size in bytes of a course records file that is read by mapping it into memory */
+	private static final long LARGE_CATALOG_LENGTH = 1024 * 1024;
+
+	/** Largest number of catalogs kept in the cache */
+	static final int MAX_CATALOGS = 16;
+
+	/** Number of bytes read at a time to checksum a file */
+	private static final int CHECKSUM_BUFFER_BYTES = 8192;
+
+	/** Checksum of a file that can't be read, which no CRC-32 checksum is equal to */
+	private static final long NO_CHECKSUM = -1;
+
+	/** The cached catalogs, by canonical path of their file */
+	private static final ConcurrentHashMap<String, CachedCatalog> CATALOGS =
+			new ConcurrentHashMap<String, CachedCatalog>();
+
+	/** Counter giving each use of a cached catalog a later time than the last */
+	private static final AtomicLong USES = new AtomicLong();
+
+	/** The seat tables still used by a scheduler, by canonical path of their file */
+	private static final ConcurrentHashMap<String, SeatTableReference> SEAT_TABLES =
+			new ConcurrentHashMap<String, SeatTableReference>();
+
+	/** Queue of the seat tables no scheduler uses any more */
+	private static final ReferenceQueue<SeatTable> UNUSED_SEAT_TABLES = new ReferenceQueue<SeatTable>();
+
+	/**
+	 * Returns the catalog of the courses in the given file, reading the
+	 * file only if it has not been read before or has changed since.
+	 *
+	 * @param fileName
+	 * 			The file name for course records
+	 * @return the shared catalog of the courses in the file
+	 * @throws IllegalArgumentException
+	 * 			If the file cannot be accessed, with
+	 * 			the message "Cannot find file"
+	 */
+	public static CourseCatalog getCatalog(String fileName) {
+		File file = new File(fileName);
+		String path = canonicalPath(file);
+		//the file is checked before it is read, so a change made while reading is seen next time
+		long lastModified = file.lastModified();
+		long length = file.length();
+		long checksum = checksum(file);
+		CachedCatalog cached = CATALOGS.get(path);
+		if (cached == null || !cached.isCurrent(lastModified, length, checksum)) {
+			//sections that did not change keep their Course objects from the old catalog
+			CourseCatalog previous = cached == null ? null : cached.getIfRead();
+			CachedCatalog read = new CachedCatalog(new FutureTask<CourseCatalog>(
+					() -> new ListCourseCatalog(readCatalog(fileName, previous))), lastModified, length, checksum);
+			cached = CATALOGS.compute(path, (key, current) ->
+					current != null && current.isCurrent(lastModified, length, checksum) ? current : read);
+			if (cached == read) {
+				evictLeastRecentlyUsed();
+				read.catalog.run();
+			}
+		}
+		cached.lastUsed = USES.incrementAndGet();
+		try {
+			return cached.catalog.get();
+		}
+		catch (ExecutionException e) {
+			//a failed read is not kept, so the next caller tries again
+			CATALOGS.remove(path, cached);
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalArgumentException("Cannot find file");
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalArgumentException("Cannot find file");
+		}
+	}
+
+	/**
+	 * Returns the number of catalogs in the cache.
+	 *
+	 * @return the number of cached catalogs
+	 */
+	static int size() {
+		return CATALOGS.size();
+	}
+
+	/**
+	 * Drops catalogs from the cache, least recently used first, until
+	 * there are at most MAX_CATALOGS.
+	 */
+	private static void evictLeastRecentlyUsed() {
+		while (CATALOGS.size() > MAX_CATALOGS) {
+			Map.Entry<String, CachedCatalog> oldest = null;
+			for (Map.Entry<String, CachedCatalog> entry : CATALOGS.entrySet()) {
+				if (oldest == null || entry.getValue().lastUsed < oldest.getValue().lastUsed) {
+					oldest = entry;
+				}
+			}
+			CATALOGS.remove(oldest.getKey(), oldest.getValue());
+		}
+	}
+
+	/**
+	 * Returns the seat table of the sections in the given file, which is
+	 * the same for every caller as long as a scheduler uses it, or until
+	 * clear() is called.
+	 *
+	 * @param fileName
+	 * 			The file name for course records
+	 * @return the shared seat table of the file
+	 * @throws IllegalArgumentException
+	 * 			If the file's path cannot be found, with
+	 * 			the message "Cannot find file"
+	 */
+	public static SeatTable getSeatTable(String fileName) {
+		//drop the entries of seat tables that are no longer used
+		SeatTableReference unused;
+		while ((unused = (SeatTableReference) UNUSED_SEAT_TABLES.poll()) != null) {
+			SEAT_TABLES.remove(unused.path, unused);
+		}
+		String path = canonicalPath(new File(fileName));
+		while (true) {
+			SeatTableReference reference = SEAT_TABLES.get(path);
+			SeatTable seats = reference == null ? null : reference.get();
+			if (seats != null) {
+				return seats;
+			}
+			seats = new SeatTable();
+			SeatTableReference added = new SeatTableReference(path, seats);
+			boolean put = reference == null ? SEAT_TABLES.putIfAbsent(path, added) == null
+					: SEAT_TABLES.replace(path, reference, added);
+			if (put) {
+				return seats;
+			}
+		}
+	}
+
+	/**
+	 * Removes every catalog and seat table from the cache. Schedulers
+	 * that already reference a catalog or seat table keep it.
+	 */
+	public static void clear() {
+		CATALOGS.clear();
+		SEAT_TABLES.clear();
+	}
+
+	/**
+	 * Returns the canonical path of the file, which is the key of its
+	 * catalog and seat table.
+	 *
+	 * @param file
+	 * 			The course records file
+	 * @return the canonical path of the file
+	 * @throws IllegalArgumentException
+	 * 			If the path cannot be found, with
+	 * 			the message "Cannot find file"
+	 */
+	private static String canonicalPath(File file) {
+		try {
+			return file.getCanonicalPath();
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException("Cannot find file");
+		}
+	}
+
+	/**
+	 * Returns the CRC-32 checksum of the bytes of the file.
+	 *
+	 * @param file
+	 * 			The course records file
+	 * @return the checksum, or NO_CHECKSUM if the file can't be read
+	 */
+	private static long checksum(File file) {
+		try (CheckedInputStream in = new CheckedInputStream(new FileInputStream(file), new CRC32())) {
+			byte[] buffer = new byte[CHECKSUM_BUFFER_BYTES];
+			while (in.read(buffer) >= 0) {
+				//the stream updates the checksum as it is read
+			}
+			return in.getChecksum().getValue();
+		}
+		catch (IOException e) {
+			return NO_CHECKSUM;
+		}
+	}
+
+	/**
+	 * Reads the catalog of courses from the given file, without caching
+	 * it. Large files are read by mapping them into memory.
+	 *
+	 * @param fileName
+	 * 			The file name for course records
+	 * @return the Courses in the file
+	 * @throws IllegalArgumentException
+	 * 			If the file cannot be accessed, with
+	 * 			the message "Cannot find file"
+	 */
+	static ArrayList<Course> readCatalog(String fileName) {
+		try {
+			if (new File(fileName).length() >= LARGE_CATALOG_LENGTH) {
+				return CourseRecordIO.readCourseRecordsMapped(fileName);
+			}
+			return CourseRecordIO.readCourseRecords(fileName);
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException("Cannot find file");
+		}
+	}
+
+	/**
+	 * Reads the catalog of courses from the given file, without caching
+	 * it, and replaces each Course that is equal to the Course with the
+	 * same name and section in the previous catalog with that Course, so
+	 * the sections that did not change keep their Course objects.
+	 *
+	 * @param fileName
+	 * 			The file name for course records
+	 * @param previous
+	 * 			The catalog read from the file before, or null if there
+	 * 			is none
+	 * @return the Courses in the file
+	 * @throws IllegalArgumentException
+	 * 			If the file cannot be accessed, with
+	 * 			the message "Cannot find file"
+	 */
+	static ArrayList<Course> readCatalog(String fileName, CourseCatalog previous) {
+		ArrayList<Course> courses = readCatalog(fileName);
+		if (previous == null) {
+			return courses;
+		}
+		for (int i = 0; i < courses.size(); i++) {
+			Course c = courses.get(i);
+			int row = previous.indexOf(c.getName(), c.getSection());
+			if (row >= 0) {
+				Course old = previous.getCourse(row);
+				if (old.equals(c)) {
+					courses.set(i, old);
+				}
+			}
+		}
+		return courses;
+	}
+
+	/**
+	 * A catalog in the cache, with the last modified time, length and
+	 * checksum its file had when it was read. The catalog is read by a
+	 * task, so threads wanting it before the read finishes wait for the
+	 * task.
+	 *
+	 * @author Sanjana Cheerla
+	 */
+	private static class CachedCatalog {
+
+		/** The task that reads the catalog from the file */
+		private final FutureTask<CourseCatalog> catalog;
+
+		/** Last modified time of the file when it was read */
+		private final long lastModified;
+
+		/** Length of the file when it was read */
+		private final long length;
+
+		/** CRC-32 checksum of the file when it was read */
+		private final long checksum;
+
+		/** Time of the last use of the catalog, from USES */
+		private volatile long lastUsed;
+
+		/**
+		 * Constructs a cached catalog.
+		 *
+		 * @param catalog
+		 * 			The task that reads the catalog from the file
+		 * @param lastModified
+		 * 			Last modified time of the file when it was read
+		 * @param length
+		 * 			Length of the file when it was read
+		 * @param checksum
+		 * 			CRC-32 checksum of the file when it was read
+		 */
+		CachedCatalog(FutureTask<CourseCatalog> catalog, long lastModified, long length, long checksum) {
+			this.catalog = catalog;
+			this.lastModified = lastModified;
+			this.length = length;
+			this.checksum = checksum;
+			this.lastUsed = USES.incrementAndGet();
+		}
+
+		/**
+		 * Returns the catalog if it has been read, or null if it is still
+		 * being read or the read failed.
+		 *
+		 * @return the catalog, or null if it has not been read
+		 */
+		CourseCatalog getIfRead() {
+			if (!catalog.isDone()) {
+				return null;
+			}
+			try {
+				return catalog.get();
+			}
+			catch (ExecutionException | InterruptedException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * Returns true if the file still has the last modified time,
+		 * length and checksum it had when it was read.
+		 *
+		 * @param lastModified
+		 * 			Last modified time of the file now
+		 * @param length
+		 * 			Length of the file now
+		 * @param checksum
+		 * 			CRC-32 checksum of the file now
+		 * @return true if the cached catalog is current
+		 */
+		boolean isCurrent(long lastModified, long length, long checksum) {
+			return this.lastModified == lastModified && this.length == length && this.checksum == checksum;
+		}
+	}
+
+	/**
+	 * Weak reference to a shared seat table, with the path it is kept
+	 * under so its entry can be removed once the seat table is dropped.
+	 *
+	 * @author Sanjana Cheerla
+	 */
+	private static class SeatTableReference extends WeakReference<SeatTable> {
+
+		/** Canonical path of the file the seat table is kept under */
+		private final String path;
+
+		/**
+		 * Constructs a reference to the seat table of the file.
+		 *
+		 * @param path
+		 * 			Canonical path of the file
+		 * @param seats
+		 * 			The seat table
+		 */
+		SeatTableReference(String path, SeatTable seats) {
+			super(seats, UNUSED_SEAT_TABLES);
+			this.path = path;
+		}
+	}
+}
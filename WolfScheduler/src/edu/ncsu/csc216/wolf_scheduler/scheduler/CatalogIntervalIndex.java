@@ -0,0 +1,330 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Index of the meeting times of every Course in a catalog, used to find
+ * the catalog Courses that conflict with a scheduled Course. Each weekday
+ * has a static interval tree of the Courses that meet that day: the
+ * Courses are sorted by start time, and a segment tree over that order
+ * keeps the latest end time in each range. The Courses that overlap a
+ * time are found by only visiting ranges whose latest end time is after
+ * its start, so a search takes O(log n + k) time for k conflicts. The
+ * index also keeps the rows of each course name, so the other sections
+ * of a scheduled course are found without a walk over the catalog.
+ *
+ * An index is shared by every WolfScheduler that uses the same catalog,
+ * through of(), and is only read after it is constructed, so it is safe
+ * to use from many threads.
+ *
+ * Courses are kept as their row in the catalog the index was built from,
+ * and are read through the catalog's field methods, so a catalog that
+ * does not keep Course objects is indexed without making any. Arranged
+ * Courses never conflict and are not kept in the index.
+ *
+ * @author Sanjana Cheerla
+ */
+class CatalogIntervalIndex {
+
+	/** Meeting days mask bit of each day in the index */
+	private static final int[] DAYS = {Course.MONDAY, Course.TUESDAY, Course.WEDNESDAY,
+			Course.THURSDAY, Course.FRIDAY};
+
+	/** Index of each catalog that has been indexed, dropped once the catalog is no longer used */
+	private static final Map<CourseCatalog, CatalogIntervalIndex> INDEXES =
+			Collections.synchronizedMap(new WeakHashMap<CourseCatalog, CatalogIntervalIndex>());
+
+	/** Intervals of the Courses meeting on each day */
+	private final ArrayList<DayIntervals> days;
+
+	/** Rows of the sections of each course name, in row order */
+	private final HashMap<String, int[]> nameRows;
+
+	/**
+	 * Returns the index of the given catalog, constructing it the first
+	 * time the catalog is indexed.
+	 *
+	 * @param catalog
+	 * 			The catalog to index
+	 * @return the shared index of the catalog
+	 */
+	static CatalogIntervalIndex of(CourseCatalog catalog) {
+		CatalogIntervalIndex index = INDEXES.get(catalog);
+		if (index == null) {
+			//built outside the lock; if another thread got there first, its index is used
+			index = new CatalogIntervalIndex(catalog);
+			CatalogIntervalIndex other = INDEXES.putIfAbsent(catalog, index);
+			if (other != null) {
+				index = other;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Constructs the index for the given catalog.
+	 *
+	 * @param catalog
+	 * 			The catalog to index
+	 */
+	CatalogIntervalIndex(CourseCatalog catalog) {
+		days = new ArrayList<DayIntervals>(DAYS.length);
+		for (int i = 0; i < DAYS.length; i++) {
+			days.add(new DayIntervals(catalog, DAYS[i]));
+		}
+		//count the sections of each name, then fill in their rows
+		HashMap<String, int[]> counts = new HashMap<String, int[]>();
+		for (int row = 0; row < catalog.size(); row++) {
+			counts.computeIfAbsent(catalog.getName(row), name -> new int[1])[0]++;
+		}
+		nameRows = new HashMap<String, int[]>();
+		for (int row = 0; row < catalog.size(); row++) {
+			String name = catalog.getName(row);
+			int[] count = counts.get(name);
+			int[] rows = nameRows.get(name);
+			if (rows == null) {
+				rows = new int[count[0]];
+				nameRows.put(name, rows);
+				count[0] = 0;
+			}
+			rows[count[0]++] = row;
+		}
+	}
+
+	/**
+	 * Returns the rows of the catalog Courses that conflict with c.
+	 * Courses conflict if they meet on a common day and their times
+	 * overlap, including when one ends at the time the other starts.
+	 *
+	 * @param c
+	 * 			The Course to find conflicts with
+	 * @return the rows of the conflicting Courses, in increasing order
+	 * 			without repeats
+	 */
+	int[] getConflicts(Course c) {
+		RowList conflicts = new RowList();
+		addConflicts(c, conflicts);
+		return conflicts.toSortedArray();
+	}
+
+	/**
+	 * Returns the rows of the catalog Courses that can't be added to the
+	 * given schedule: each Course that conflicts with a scheduled Course,
+	 * and each section of a course that is in the schedule. The cost
+	 * grows with the number of rows returned, not the size of the
+	 * catalog.
+	 *
+	 * @param schedule
+	 * 			The Courses in the schedule
+	 * @return the rows, in increasing order without repeats
+	 */
+	int[] getUnavailableRows(ArrayList<Course> schedule) {
+		RowList unavailable = new RowList();
+		for (int i = 0; i < schedule.size(); i++) {
+			Course c = schedule.get(i);
+			addConflicts(c, unavailable);
+			int[] rows = nameRows.get(c.getName());
+			for (int j = 0; rows != null && j < rows.length; j++) {
+				unavailable.add(rows[j]);
+			}
+		}
+		return unavailable.toSortedArray();
+	}
+
+	/**
+	 * Adds the row of each catalog Course that conflicts with c to the
+	 * list.
+	 *
+	 * @param c
+	 * 			The Course to find conflicts with
+	 * @param conflicts
+	 * 			The list to add rows to
+	 */
+	private void addConflicts(Course c, RowList conflicts) {
+		int mask = c.getMeetingDaysMask();
+		for (int i = 0; i < DAYS.length; i++) {
+			if ((mask & DAYS[i]) != 0) {
+				days.get(i).addOverlaps(c.getStartTime(), c.getEndTime(), conflicts);
+			}
+		}
+	}
+
+	/**
+	 * Growable list of catalog rows.
+	 *
+	 * @author Sanjana Cheerla
+	 */
+	private static class RowList {
+
+		/** The rows, followed by unused room */
+		private int[] rows = new int[16];
+
+		/** Number of rows in the list */
+		private int size;
+
+		/**
+		 * Adds a row to the end of the list.
+		 *
+		 * @param row
+		 * 			The row to add
+		 */
+		void add(int row) {
+			if (size == rows.length) {
+				rows = Arrays.copyOf(rows, size * 2);
+			}
+			rows[size++] = row;
+		}
+
+		/**
+		 * Returns the rows in the list in increasing order, with each row
+		 * only once.
+		 *
+		 * @return the sorted rows without repeats
+		 */
+		int[] toSortedArray() {
+			Arrays.sort(rows, 0, size);
+			int count = 0;
+			for (int i = 0; i < size; i++) {
+				if (count == 0 || rows[count - 1] != rows[i]) {
+					rows[count++] = rows[i];
+				}
+			}
+			size = count;
+			return Arrays.copyOf(rows, count);
+		}
+	}
+
+	/**
+	 * Interval tree of the Courses in a catalog that meet on one day.
+	 *
+	 * @author Sanjana Cheerla
+	 */
+	private static class DayIntervals {
+
+		/** Start time of each interval, in increasing order */
+		private final int[] starts;
+
+		/** Catalog row of each interval */
+		private final int[] rows;
+
+		/** Number of leaves in the segment tree, a power of two */
+		private final int leaves;
+
+		/**
+		 * Latest end time in each node of the segment tree. Node 1 is the
+		 * root, node n has children 2n and 2n + 1, and leaf i is node
+		 * leaves + i.
+		 */
+		private final int[] maxEnds;
+
+		/**
+		 * Constructs the intervals of the catalog Courses that meet on the
+		 * given day.
+		 *
+		 * @param catalog
+		 * 			The catalog to index
+		 * @param day
+		 * 			Meeting days mask bit of the day
+		 */
+		DayIntervals(CourseCatalog catalog, int day) {
+			int size = 0;
+			long[] sorted = new long[catalog.size()];
+			for (int row = 0; row < catalog.size(); row++) {
+				if ((catalog.getMeetingDaysMask(row) & day) != 0) {
+					//sort by start time, then row, in one long
+					sorted[size++] = (long) catalog.getStartTime(row) << Integer.SIZE | row;
+				}
+			}
+			Arrays.sort(sorted, 0, size);
+
+			leaves = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+			maxEnds = new int[leaves * 2];
+			Arrays.fill(maxEnds, -1);
+			starts = new int[size];
+			rows = new int[size];
+			for (int i = 0; i < size; i++) {
+				rows[i] = (int) sorted[i];
+				starts[i] = (int) (sorted[i] >>> Integer.SIZE);
+				maxEnds[leaves + i] = catalog.getEndTime(rows[i]);
+			}
+			for (int node = leaves - 1; node > 0; node--) {
+				maxEnds[node] = Math.max(maxEnds[node * 2], maxEnds[node * 2 + 1]);
+			}
+		}
+
+		/**
+		 * Adds the row of each interval that overlaps the time from start
+		 * to end to the list.
+		 *
+		 * @param start
+		 * 			Start of the time
+		 * @param end
+		 * 			End of the time
+		 * @param conflicts
+		 * 			The list to add rows to
+		 */
+		void addOverlaps(int start, int end, RowList conflicts) {
+			//only intervals that start by the end of the time can overlap it
+			int count = upperBound(end);
+			addOverlaps(1, 0, leaves, count, start, conflicts);
+		}
+
+		/**
+		 * Adds the row of each interval in the subtree of node that is
+		 * before count and ends at or after start to the list.
+		 *
+		 * @param node
+		 * 			Node of the segment tree
+		 * @param from
+		 * 			First interval in the node
+		 * @param to
+		 * 			Interval after the last one in the node
+		 * @param count
+		 * 			Number of intervals that may overlap
+		 * @param start
+		 * 			Start of the time
+		 * @param conflicts
+		 * 			The list to add rows to
+		 */
+		private void addOverlaps(int node, int from, int to, int count, int start, RowList conflicts) {
+			if (from >= count || maxEnds[node] < start) {
+				return;
+			}
+			if (node >= leaves) {
+				conflicts.add(rows[from]);
+				return;
+			}
+			int middle = (from + to) / 2;
+			addOverlaps(node * 2, from, middle, count, start, conflicts);
+			addOverlaps(node * 2 + 1, middle, to, count, start, conflicts);
+		}
+
+		/**
+		 * Returns the number of intervals that start at or before time.
+		 *
+		 * @param time
+		 * 			The time to search for
+		 * @return the index of the first interval that starts after time
+		 */
+		private int upperBound(int time) {
+			int low = 0;
+			int high = starts.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (starts[middle] <= time) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+	}
+}
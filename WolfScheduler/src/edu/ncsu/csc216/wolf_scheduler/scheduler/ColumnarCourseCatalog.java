@@ -0,0 +1,306 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * CourseCatalog that stores its Courses as columns instead of objects.
+ * Each field has its own array with one element per row: the String
+ * fields are ids in a dictionary of the catalog's distinct Strings, and
+ * the credits, times and meeting days bitmask are ints. A search over a
+ * field, like findCourses(), is a loop over a primitive array instead of
+ * a walk over Course objects.
+ *
+ * getCourse() makes a new frozen Course from the columns each time it is
+ * called, so callers compare Courses from the catalog with equals().
+ *
+ * @author Sanjana Cheerla
+ */
+public class ColumnarCourseCatalog implements CourseCatalog {
+
+	/** Value of an empty slot in the row table */
+	private static final int EMPTY = -1;
+
+	/** Multiplier used to hash a name id and section id together */
+	private static final int HASH_PRIME = 31;
+
+	/** Number of Courses in the catalog */
+	private final int size;
+
+	/** Distinct String values of the String fields */
+	private final StringDictionary strings;
+
+	/** Dictionary id of each Course's name */
+	private final int[] names;
+
+	/** Dictionary id of each Course's title */
+	private final int[] titles;
+
+	/** Dictionary id of each Course's section */
+	private final int[] sections;
+
+	/** Dictionary id of each Course's instructorId */
+	private final int[] instructorIds;
+
+	/** Dictionary id of each Course's meetingDays */
+	private final int[] meetingDays;
+
+	/** Each Course's credits */
+	private final int[] credits;
+
+	/** Each Course's start time */
+	private final int[] startTimes;
+
+	/** Each Course's end time */
+	private final int[] endTimes;
+
+	/** Each Course's meeting days bitmask */
+	private final int[] meetingDaysMasks;
+
+	/** Open addressing hash table of rows by name and section, EMPTY for an empty slot */
+	private final int[] rowTable;
+
+	/**
+	 * Constructs a catalog of the given Courses. If there is more than one
+	 * Course with the same name and section, only the first one is in the
+	 * catalog.
+	 *
+	 * @param courses
+	 * 			The Courses in the catalog
+	 */
+	public ColumnarCourseCatalog(ArrayList<Course> courses) {
+		int capacity = courses.size();
+		strings = new StringDictionary();
+		names = new int[capacity];
+		titles = new int[capacity];
+		sections = new int[capacity];
+		instructorIds = new int[capacity];
+		meetingDays = new int[capacity];
+		credits = new int[capacity];
+		startTimes = new int[capacity];
+		endTimes = new int[capacity];
+		meetingDaysMasks = new int[capacity];
+		rowTable = new int[Integer.highestOneBit(Math.max(1, capacity)) * 4];
+		Arrays.fill(rowTable, EMPTY);
+
+		int row = 0;
+		for (int i = 0; i < courses.size(); i++) {
+			Course c = courses.get(i);
+			names[row] = strings.add(c.getName());
+			sections[row] = strings.add(c.getSection());
+			int slot = findSlot(names[row], sections[row]);
+			if (rowTable[slot] != EMPTY) {
+				//only the first Course with a name and section is kept
+				continue;
+			}
+			rowTable[slot] = row;
+			titles[row] = strings.add(c.getTitle());
+			instructorIds[row] = strings.add(c.getInstructorId());
+			meetingDays[row] = strings.add(c.getMeetingDays());
+			credits[row] = c.getCredits();
+			startTimes[row] = c.getStartTime();
+			endTimes[row] = c.getEndTime();
+			meetingDaysMasks[row] = c.getMeetingDaysMask();
+			row++;
+		}
+		size = row;
+	}
+
+	/**
+	 * Returns the number of Courses in the catalog.
+	 *
+	 * @return the size of the catalog
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns a new frozen Course made from the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course in the row
+	 * @throws IndexOutOfBoundsException
+	 * 			If the row is not in the catalog
+	 */
+	@Override
+	public Course getCourse(int row) {
+		checkRow(row);
+		Course c = new Course(strings.get(names[row]), strings.get(titles[row]), strings.get(sections[row]),
+				credits[row], strings.get(instructorIds[row]), strings.get(meetingDays[row]),
+				startTimes[row], endTimes[row]);
+		c.freeze();
+		return c;
+	}
+
+	/**
+	 * Returns the row of the Course with the given name and section.
+	 *
+	 * @param name
+	 * 			The name of the Course
+	 * @param section
+	 * 			The section of the Course
+	 * @return the row of the Course, or -1 if there is no such Course
+	 */
+	@Override
+	public int indexOf(String name, String section) {
+		int nameId = strings.idOf(name);
+		int sectionId = strings.idOf(section);
+		if (nameId < 0 || sectionId < 0) {
+			return -1;
+		}
+		return rowTable[findSlot(nameId, sectionId)];
+	}
+
+	/**
+	 * Returns a new ColumnarCourseCatalog holding the given Courses.
+	 *
+	 * @param courses
+	 * 			The Courses for the new catalog
+	 * @return the new catalog
+	 */
+	@Override
+	public CourseCatalog withCourses(ArrayList<Course> courses) {
+		return new ColumnarCourseCatalog(courses);
+	}
+
+	/**
+	 * Returns the name of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's name
+	 */
+	@Override
+	public String getName(int row) {
+		checkRow(row);
+		return strings.get(names[row]);
+	}
+
+	/**
+	 * Returns the section of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's section
+	 */
+	@Override
+	public String getSection(int row) {
+		checkRow(row);
+		return strings.get(sections[row]);
+	}
+
+	/**
+	 * Returns the title of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's title
+	 */
+	@Override
+	public String getTitle(int row) {
+		checkRow(row);
+		return strings.get(titles[row]);
+	}
+
+	/**
+	 * Returns the meeting days bitmask of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's meeting days bitmask
+	 */
+	@Override
+	public int getMeetingDaysMask(int row) {
+		checkRow(row);
+		return meetingDaysMasks[row];
+	}
+
+	/**
+	 * Returns the start time of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's start time
+	 */
+	@Override
+	public int getStartTime(int row) {
+		checkRow(row);
+		return startTimes[row];
+	}
+
+	/**
+	 * Returns the end time of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's end time
+	 */
+	@Override
+	public int getEndTime(int row) {
+		checkRow(row);
+		return endTimes[row];
+	}
+
+	/**
+	 * Returns the rows of the Courses with at least minCredits credits
+	 * that meet on every day in daysMask, in row order. For example,
+	 * findCourses(3, Course.WEDNESDAY) finds the Courses with 3 or more
+	 * credits that meet on Wednesday. A daysMask of 0 matches every Course.
+	 *
+	 * @param minCredits
+	 * 			The fewest credits a Course may have
+	 * @param daysMask
+	 * 			Meeting days bitmask of the days a Course must meet
+	 * @return the rows of the matching Courses
+	 */
+	public int[] findCourses(int minCredits, int daysMask) {
+		int[] found = new int[size];
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			if (credits[row] >= minCredits && (meetingDaysMasks[row] & daysMask) == daysMask) {
+				found[count++] = row;
+			}
+		}
+		return Arrays.copyOf(found, count);
+	}
+
+	/**
+	 * Returns the slot of the row table that holds the row with the given
+	 * name and section ids, or the empty slot where it would go.
+	 *
+	 * @param nameId
+	 * 			Dictionary id of the name
+	 * @param sectionId
+	 * 			Dictionary id of the section
+	 * @return the slot for the name and section
+	 */
+	private int findSlot(int nameId, int sectionId) {
+		int mask = rowTable.length - 1;
+		int hash = nameId * HASH_PRIME + sectionId;
+		int slot = (hash ^ (hash >>> (Integer.SIZE / 2))) & mask;
+		while (rowTable[slot] != EMPTY
+				&& (names[rowTable[slot]] != nameId || sections[rowTable[slot]] != sectionId)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Throws an IndexOutOfBoundsException if the row is not in the catalog.
+	 *
+	 * @param row
+	 * 			Row to check
+	 * @throws IndexOutOfBoundsException
+	 * 			If the row is not in the catalog
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row " + row + " is not in the catalog");
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * A catalog of Courses that a WolfScheduler schedules from. Each Course
+ * in the catalog has a row, from 0 up to size() - 1, in the order the
+ * Courses were given to the catalog, and no two rows have the same name
+ * and section. A catalog does not change after it is constructed.
+ *
+ * The field methods return the same values as the Course in the row, so a
+ * catalog that does not keep Course objects can answer them without
+ * making one.
+ *
+ * @author Sanjana Cheerla
+ */
+public interface CourseCatalog {
+
+	/**
+	 * Returns the number of Courses in the catalog.
+	 *
+	 * @return the size of the catalog
+	 */
+	int size();
+
+	/**
+	 * Returns the Course in the given row. The Course is frozen.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course in the row
+	 * @throws IndexOutOfBoundsException
+	 * 			If the row is not in the catalog
+	 */
+	Course getCourse(int row);
+
+	/**
+	 * Returns the row of the Course with the given name and section.
+	 *
+	 * @param name
+	 * 			The name of the Course
+	 * @param section
+	 * 			The section of the Course
+	 * @return the row of the Course, or -1 if there is no such Course
+	 */
+	int indexOf(String name, String section);
+
+	/**
+	 * Returns a new catalog of the same kind holding the given Courses.
+	 * If there is more than one Course with the same name and section,
+	 * only the first one is in the catalog.
+	 *
+	 * @param courses
+	 * 			The Courses for the new catalog
+	 * @return the new catalog
+	 */
+	CourseCatalog withCourses(ArrayList<Course> courses);
+
+	/**
+	 * Returns the name of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's name
+	 */
+	default String getName(int row) {
+		return getCourse(row).getName();
+	}
+
+	/**
+	 * Returns the section of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's section
+	 */
+	default String getSection(int row) {
+		return getCourse(row).getSection();
+	}
+
+	/**
+	 * Returns the title of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's title
+	 */
+	default String getTitle(int row) {
+		return getCourse(row).getTitle();
+	}
+
+	/**
+	 * Returns the meeting days bitmask of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's meeting days bitmask
+	 */
+	default int getMeetingDaysMask(int row) {
+		return getCourse(row).getMeetingDaysMask();
+	}
+
+	/**
+	 * Returns the start time of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's start time
+	 */
+	default int getStartTime(int row) {
+		return getCourse(row).getStartTime();
+	}
+
+	/**
+	 * Returns the end time of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's end time
+	 */
+	default int getEndTime(int row) {
+		return getCourse(row).getEndTime();
+	}
+}
@@ -0,0 +1,43 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+/**
+ * Read-only view of Courses as a table of Strings, with one row for each
+ * Course and the same columns as the matching 2D array getter of
+ * WolfScheduler. A view reads each cell when it is asked for, without
+ * copying the Courses, from the catalog or schedule as it was when the
+ * view was made, so its row count and cells always agree even while the
+ * WolfScheduler is changed by another thread. WolfScheduler's
+ * getModificationCount() and getCatalogModificationCount() tell a caller
+ * when to ask for a new view.
+ *
+ * @author Sanjana Cheerla
+ */
+public interface CourseTableView {
+
+	/**
+	 * Returns the number of rows in the table.
+	 *
+	 * @return the number of rows
+	 */
+	int getRowCount();
+
+	/**
+	 * Returns the number of columns in the table.
+	 *
+	 * @return the number of columns
+	 */
+	int getColumnCount();
+
+	/**
+	 * Returns the value of the cell at the given row and column.
+	 *
+	 * @param row
+	 * 			Row of the cell
+	 * @param col
+	 * 			Column of the cell
+	 * @return the value of the cell
+	 * @throws IndexOutOfBoundsException
+	 * 			If the row or column is not in the table
+	 */
+	String getValueAt(int row, int col);
+}
@@ -0,0 +1,104 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * CourseCatalog that keeps its Courses in an ArrayList, with an index of
+ * their rows by name, then by section. getCourse() always returns the
+ * same Course object for a row. Every Course is frozen when the catalog
+ * is constructed, since the index relies on it not changing.
+ *
+ * @author Sanjana Cheerla
+ */
+public class ListCourseCatalog implements CourseCatalog {
+
+	/** The Courses, in row order */
+	private final ArrayList<Course> courses;
+
+	/** Row of each Course by name, then by section */
+	private final HashMap<String, HashMap<String, Integer>> rows;
+
+	/**
+	 * Constructs a catalog of the given Courses. If there is more than one
+	 * Course with the same name and section, only the first one is in the
+	 * catalog.
+	 *
+	 * @param courses
+	 * 			The Courses in the catalog
+	 */
+	public ListCourseCatalog(ArrayList<Course> courses) {
+		this.courses = new ArrayList<Course>(courses.size());
+		this.rows = new HashMap<String, HashMap<String, Integer>>();
+		for (int i = 0; i < courses.size(); i++) {
+			Course c = courses.get(i);
+			HashMap<String, Integer> sections = rows.get(c.getName());
+			if (sections == null) {
+				sections = new HashMap<String, Integer>();
+				rows.put(c.getName(), sections);
+			}
+			if (!sections.containsKey(c.getSection())) {
+				c.freeze();
+				sections.put(c.getSection(), this.courses.size());
+				this.courses.add(c);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of Courses in the catalog.
+	 *
+	 * @return the size of the catalog
+	 */
+	@Override
+	public int size() {
+		return courses.size();
+	}
+
+	/**
+	 * Returns the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course in the row
+	 * @throws IndexOutOfBoundsException
+	 * 			If the row is not in the catalog
+	 */
+	@Override
+	public Course getCourse(int row) {
+		return courses.get(row);
+	}
+
+	/**
+	 * Returns the row of the Course with the given name and section.
+	 *
+	 * @param name
+	 * 			The name of the Course
+	 * @param section
+	 * 			The section of the Course
+	 * @return the row of the Course, or -1 if there is no such Course
+	 */
+	@Override
+	public int indexOf(String name, String section) {
+		HashMap<String, Integer> sections = rows.get(name);
+		if (sections == null) {
+			return -1;
+		}
+		Integer row = sections.get(section);
+		return row == null ? -1 : row;
+	}
+
+	/**
+	 * Returns a new ListCourseCatalog holding the given Courses.
+	 *
+	 * @param newCourses
+	 * 			The Courses for the new catalog
+	 * @return the new catalog
+	 */
+	@Override
+	public CourseCatalog withCourses(ArrayList<Course> newCourses) {
+		return new ListCourseCatalog(newCourses);
+	}
+}
@@ -0,0 +1,381 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.FileNotFoundException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * CourseCatalog that keeps its Courses outside the Java heap, for catalogs
+ * with millions of sections. Each Course is a fixed width record in a
+ * direct ByteBuffer: the String fields are ids in an OffHeapStringTable,
+ * followed by the credits, times and meeting days bitmask. Rows are found
+ * by name and section through an open addressing hash table in a direct
+ * IntBuffer. The heap only holds a few buffer objects, however many
+ * Courses the catalog has, so the garbage collector never has to walk
+ * them.
+ *
+ * getCourse() makes a new frozen Course from a record each time it is
+ * called, so callers compare Courses from the catalog with equals().
+ * Direct memory is limited by the JVM's -XX:MaxDirectMemorySize setting.
+ *
+ * @author Sanjana Cheerla
+ */
+public class OffHeapCourseCatalog implements CourseCatalog {
+
+	/** Value of an empty slot in the row table */
+	private static final int EMPTY = -1;
+
+	/** Multiplier used to hash a name id and section id together */
+	private static final int HASH_PRIME = 31;
+
+	/** Number of rows a new catalog has room for when the size is not known */
+	private static final int INITIAL_ROWS = 1024;
+
+	/** Offset of the name id in a record */
+	private static final int NAME = 0;
+
+	/** Offset of the title id in a record */
+	private static final int TITLE = NAME + Integer.BYTES;
+
+	/** Offset of the section id in a record */
+	private static final int SECTION = TITLE + Integer.BYTES;
+
+	/** Offset of the instructorId id in a record */
+	private static final int INSTRUCTOR_ID = SECTION + Integer.BYTES;
+
+	/** Offset of the meetingDays id in a record */
+	private static final int MEETING_DAYS = INSTRUCTOR_ID + Integer.BYTES;
+
+	/** Offset of the credits in a record */
+	private static final int CREDITS = MEETING_DAYS + Integer.BYTES;
+
+	/** Offset of the start time in a record */
+	private static final int START_TIME = CREDITS + Integer.BYTES;
+
+	/** Offset of the end time in a record */
+	private static final int END_TIME = START_TIME + Integer.BYTES;
+
+	/** Offset of the meeting days bitmask in a record */
+	private static final int MEETING_DAYS_MASK = END_TIME + Integer.BYTES;
+
+	/** Number of bytes in a record */
+	private static final int RECORD_BYTES = MEETING_DAYS_MASK + Integer.BYTES;
+
+	/** Distinct String values of the String fields */
+	private final OffHeapStringTable strings;
+
+	/** The records, in row order */
+	private ByteBuffer records;
+
+	/** Open addressing hash table of rows by name and section, EMPTY for an empty slot */
+	private IntBuffer rowTable;
+
+	/** Number of Courses in the catalog */
+	private int size;
+
+	/**
+	 * Constructs a catalog of the given Courses. If there is more than one
+	 * Course with the same name and section, only the first one is in the
+	 * catalog.
+	 *
+	 * @param courses
+	 * 			The Courses in the catalog
+	 */
+	public OffHeapCourseCatalog(ArrayList<Course> courses) {
+		this(courses.size());
+		for (int i = 0; i < courses.size(); i++) {
+			addCourse(courses.get(i));
+		}
+	}
+
+	/**
+	 * Constructs an empty catalog with room for the given number of rows.
+	 *
+	 * @param rows
+	 * 			Number of rows to make room for
+	 */
+	private OffHeapCourseCatalog(int rows) {
+		strings = new OffHeapStringTable();
+		records = ByteBuffer.allocateDirect(Math.max(1, rows) * RECORD_BYTES);
+		rowTable = newRowTable(Integer.highestOneBit(Math.max(1, rows)) * 4);
+	}
+
+	/**
+	 * Reads a catalog from the course records in the given file. The
+	 * Courses are read one line at a time and stored as they are read, so
+	 * the whole file is never held on the heap as Course objects. If there
+	 * is more than one Course with the same name and section, only the
+	 * first one is in the catalog.
+	 *
+	 * @param fileName
+	 * 			The file to read Course records from
+	 * @return the catalog of the valid Courses in the file
+	 * @throws FileNotFoundException
+	 * 			If the file can't be found or read
+	 */
+	public static OffHeapCourseCatalog readCatalog(String fileName) throws FileNotFoundException {
+		OffHeapCourseCatalog catalog = new OffHeapCourseCatalog(INITIAL_ROWS);
+		try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(fileName, false)) {
+			courses.forEachOrdered(catalog::addCourse);
+		}
+		return catalog;
+	}
+
+	/**
+	 * Adds a record for the Course to the end of the catalog, unless a
+	 * Course with the same name and section is already in it.
+	 *
+	 * @param c
+	 * 			The Course to add
+	 */
+	private void addCourse(Course c) {
+		int nameId = strings.add(c.getName());
+		int sectionId = strings.add(c.getSection());
+		int slot = findSlot(nameId, sectionId);
+		if (rowTable.get(slot) != EMPTY) {
+			return;
+		}
+		if ((size + 1) * RECORD_BYTES > records.capacity()) {
+			records = OffHeapStringTable.copy(records, records.capacity() * 2);
+		}
+		int record = size * RECORD_BYTES;
+		records.putInt(record + NAME, nameId);
+		records.putInt(record + TITLE, strings.add(c.getTitle()));
+		records.putInt(record + SECTION, sectionId);
+		records.putInt(record + INSTRUCTOR_ID, strings.add(c.getInstructorId()));
+		records.putInt(record + MEETING_DAYS, strings.add(c.getMeetingDays()));
+		records.putInt(record + CREDITS, c.getCredits());
+		records.putInt(record + START_TIME, c.getStartTime());
+		records.putInt(record + END_TIME, c.getEndTime());
+		records.putInt(record + MEETING_DAYS_MASK, c.getMeetingDaysMask());
+		rowTable.put(slot, size);
+		size++;
+		if (size * 2 > rowTable.capacity()) {
+			growRowTable();
+		}
+	}
+
+	/**
+	 * Returns the number of Courses in the catalog.
+	 *
+	 * @return the size of the catalog
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns a new frozen Course made from the record in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course in the row
+	 * @throws IndexOutOfBoundsException
+	 * 			If the row is not in the catalog
+	 */
+	@Override
+	public Course getCourse(int row) {
+		int record = recordOf(row);
+		Course c = new Course(strings.get(records.getInt(record + NAME)),
+				strings.get(records.getInt(record + TITLE)), strings.get(records.getInt(record + SECTION)),
+				records.getInt(record + CREDITS), strings.get(records.getInt(record + INSTRUCTOR_ID)),
+				strings.get(records.getInt(record + MEETING_DAYS)), records.getInt(record + START_TIME),
+				records.getInt(record + END_TIME));
+		c.freeze();
+		return c;
+	}
+
+	/**
+	 * Returns the row of the Course with the given name and section.
+	 *
+	 * @param name
+	 * 			The name of the Course
+	 * @param section
+	 * 			The section of the Course
+	 * @return the row of the Course, or -1 if there is no such Course
+	 */
+	@Override
+	public int indexOf(String name, String section) {
+		int nameId = strings.idOf(name);
+		int sectionId = strings.idOf(section);
+		if (nameId < 0 || sectionId < 0) {
+			return -1;
+		}
+		return rowTable.get(findSlot(nameId, sectionId));
+	}
+
+	/**
+	 * Returns a new OffHeapCourseCatalog holding the given Courses.
+	 *
+	 * @param courses
+	 * 			The Courses for the new catalog
+	 * @return the new catalog
+	 */
+	@Override
+	public CourseCatalog withCourses(ArrayList<Course> courses) {
+		return new OffHeapCourseCatalog(courses);
+	}
+
+	/**
+	 * Returns the name of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's name
+	 */
+	@Override
+	public String getName(int row) {
+		return strings.get(records.getInt(recordOf(row) + NAME));
+	}
+
+	/**
+	 * Returns the section of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's section
+	 */
+	@Override
+	public String getSection(int row) {
+		return strings.get(records.getInt(recordOf(row) + SECTION));
+	}
+
+	/**
+	 * Returns the title of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's title
+	 */
+	@Override
+	public String getTitle(int row) {
+		return strings.get(records.getInt(recordOf(row) + TITLE));
+	}
+
+	/**
+	 * Returns the meeting days bitmask of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's meeting days bitmask
+	 */
+	@Override
+	public int getMeetingDaysMask(int row) {
+		return records.getInt(recordOf(row) + MEETING_DAYS_MASK);
+	}
+
+	/**
+	 * Returns the start time of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's start time
+	 */
+	@Override
+	public int getStartTime(int row) {
+		return records.getInt(recordOf(row) + START_TIME);
+	}
+
+	/**
+	 * Returns the end time of the Course in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the Course's end time
+	 */
+	@Override
+	public int getEndTime(int row) {
+		return records.getInt(recordOf(row) + END_TIME);
+	}
+
+	/**
+	 * Returns the offset of the record in the given row.
+	 *
+	 * @param row
+	 * 			Row of the Course
+	 * @return the offset of the row's record
+	 * @throws IndexOutOfBoundsException
+	 * 			If the row is not in the catalog
+	 */
+	private int recordOf(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row " + row + " is not in the catalog");
+		}
+		return row * RECORD_BYTES;
+	}
+
+	/**
+	 * Returns the slot of the row table that holds the row with the given
+	 * name and section ids, or the empty slot where it would go.
+	 *
+	 * @param nameId
+	 * 			String table id of the name
+	 * @param sectionId
+	 * 			String table id of the section
+	 * @return the slot for the name and section
+	 */
+	private int findSlot(int nameId, int sectionId) {
+		int mask = rowTable.capacity() - 1;
+		int slot = hash(nameId, sectionId) & mask;
+		while (rowTable.get(slot) != EMPTY) {
+			int record = rowTable.get(slot) * RECORD_BYTES;
+			if (records.getInt(record + NAME) == nameId && records.getInt(record + SECTION) == sectionId) {
+				break;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Doubles the number of slots in the row table and puts every row in
+	 * the new table.
+	 */
+	private void growRowTable() {
+		rowTable = newRowTable(rowTable.capacity() * 2);
+		int mask = rowTable.capacity() - 1;
+		for (int row = 0; row < size; row++) {
+			int record = row * RECORD_BYTES;
+			int slot = hash(records.getInt(record + NAME), records.getInt(record + SECTION)) & mask;
+			while (rowTable.get(slot) != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			rowTable.put(slot, row);
+		}
+	}
+
+	/**
+	 * Returns the hash of a name id and section id.
+	 *
+	 * @param nameId
+	 * 			String table id of the name
+	 * @param sectionId
+	 * 			String table id of the section
+	 * @return the hash of the ids
+	 */
+	private static int hash(int nameId, int sectionId) {
+		int hash = nameId * HASH_PRIME + sectionId;
+		return hash ^ (hash >>> (Integer.SIZE / 2));
+	}
+
+	/**
+	 * Returns a new row table with every slot empty.
+	 *
+	 * @param slots
+	 * 			Number of slots, a power of two
+	 * @return the new table
+	 */
+	private static IntBuffer newRowTable(int slots) {
+		IntBuffer table = ByteBuffer.allocateDirect(slots * Integer.BYTES).asIntBuffer();
+		for (int i = 0; i < slots; i++) {
+			table.put(i, EMPTY);
+		}
+		return table;
+	}
+}
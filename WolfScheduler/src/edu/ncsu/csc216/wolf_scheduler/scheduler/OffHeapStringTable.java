@@ -0,0 +1,224 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Table of distinct Strings kept outside the Java heap, so a catalog can
+ * store a String field as an int for each row without keeping a String
+ * object for every value. Each String gets an int id, from 0 in the order
+ * the Strings were added. The UTF-8 bytes of the Strings are kept end to
+ * end in a direct ByteBuffer, with the offset of each one in a direct
+ * IntBuffer, and the ids are found by an open addressing hash table in
+ * another direct IntBuffer. get() makes a new String from the bytes each
+ * time it is called.
+ *
+ * @author Sanjana Cheerla
+ */
+class OffHeapStringTable {
+
+	/** Value of an empty slot in the hash table */
+	private static final int EMPTY = -1;
+
+	/** Number of bytes a new table has room for */
+	private static final int INITIAL_BYTES = 4096;
+
+	/** Number of Strings a new table has room for */
+	private static final int INITIAL_STRINGS = 256;
+
+	/** Multiplier of the byte hash */
+	private static final int HASH_PRIME = 31;
+
+	/** UTF-8 bytes of the Strings, end to end */
+	private ByteBuffer bytes;
+
+	/** Offset of each String in bytes, by id, with the end of the last String after them */
+	private IntBuffer offsets;
+
+	/** Open addressing hash table of ids, EMPTY for an empty slot */
+	private IntBuffer table;
+
+	/** Number of Strings in the table */
+	private int size;
+
+	/**
+	 * Constructs an empty table.
+	 */
+	OffHeapStringTable() {
+		bytes = ByteBuffer.allocateDirect(INITIAL_BYTES);
+		offsets = ByteBuffer.allocateDirect((INITIAL_STRINGS + 1) * Integer.BYTES).asIntBuffer();
+		table = newTable(INITIAL_STRINGS * 2);
+	}
+
+	/**
+	 * Returns the id of the String, adding it to the table if it is not
+	 * there yet.
+	 *
+	 * @param s
+	 * 			The String to add
+	 * @return the id of the String
+	 */
+	int add(String s) {
+		byte[] value = s.getBytes(StandardCharsets.UTF_8);
+		int slot = findSlot(value);
+		if (table.get(slot) != EMPTY) {
+			return table.get(slot);
+		}
+		int start = offsets.get(size);
+		if (start + value.length > bytes.capacity()) {
+			bytes = copy(bytes, Math.max(bytes.capacity() * 2, start + value.length));
+		}
+		if (size + 2 > offsets.capacity()) {
+			ByteBuffer grown = ByteBuffer.allocateDirect(offsets.capacity() * 2 * Integer.BYTES);
+			grown.asIntBuffer().put(offsets.duplicate().clear());
+			offsets = grown.asIntBuffer();
+		}
+		bytes.put(start, value);
+		offsets.put(size + 1, start + value.length);
+		table.put(slot, size);
+		size++;
+		if (size * 2 > table.capacity()) {
+			grow();
+		}
+		return size - 1;
+	}
+
+	/**
+	 * Returns the id of the String.
+	 *
+	 * @param s
+	 * 			The String to find
+	 * @return the id of the String, or -1 if it is not in the table
+	 */
+	int idOf(String s) {
+		return table.get(findSlot(s.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Returns a String made from the bytes of the String with the given id.
+	 *
+	 * @param id
+	 * 			The id of the String
+	 * @return the String
+	 */
+	String get(int id) {
+		int start = offsets.get(id);
+		byte[] value = new byte[offsets.get(id + 1) - start];
+		bytes.get(start, value);
+		return new String(value, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the number of Strings in the table.
+	 *
+	 * @return the size of the table
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the slot of the hash table that holds the id of the String
+	 * with the given bytes, or the empty slot where it would go.
+	 *
+	 * @param value
+	 * 			UTF-8 bytes of the String
+	 * @return the slot for the String
+	 */
+	private int findSlot(byte[] value) {
+		int mask = table.capacity() - 1;
+		int slot = hash(value) & mask;
+		while (table.get(slot) != EMPTY && !matches(table.get(slot), value)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns true if the String with the given id has the given bytes.
+	 *
+	 * @param id
+	 * 			The id of the String
+	 * @param value
+	 * 			UTF-8 bytes to compare
+	 * @return true if the bytes are the same
+	 */
+	private boolean matches(int id, byte[] value) {
+		int start = offsets.get(id);
+		if (offsets.get(id + 1) - start != value.length) {
+			return false;
+		}
+		for (int i = 0; i < value.length; i++) {
+			if (bytes.get(start + i) != value[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the hash of the bytes, with its high bits mixed into the low
+	 * bits used to pick a slot.
+	 *
+	 * @param value
+	 * 			The bytes to hash
+	 * @return the hash of the bytes
+	 */
+	private static int hash(byte[] value) {
+		int hash = 0;
+		for (int i = 0; i < value.length; i++) {
+			hash = HASH_PRIME * hash + value[i];
+		}
+		return hash ^ (hash >>> (Integer.SIZE / 2));
+	}
+
+	/**
+	 * Doubles the number of slots in the hash table and puts every id in
+	 * the new table.
+	 */
+	private void grow() {
+		table = newTable(table.capacity() * 2);
+		int mask = table.capacity() - 1;
+		for (int id = 0; id < size; id++) {
+			byte[] value = new byte[offsets.get(id + 1) - offsets.get(id)];
+			bytes.get(offsets.get(id), value);
+			int slot = hash(value) & mask;
+			while (table.get(slot) != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			table.put(slot, id);
+		}
+	}
+
+	/**
+	 * Returns a new hash table with every slot empty.
+	 *
+	 * @param slots
+	 * 			Number of slots, a power of two
+	 * @return the new table
+	 */
+	private static IntBuffer newTable(int slots) {
+		IntBuffer newTable = ByteBuffer.allocateDirect(slots * Integer.BYTES).asIntBuffer();
+		for (int i = 0; i < slots; i++) {
+			newTable.put(i, EMPTY);
+		}
+		return newTable;
+	}
+
+	/**
+	 * Returns a new direct buffer of the given capacity that starts with
+	 * the contents of buffer.
+	 *
+	 * @param buffer
+	 * 			The buffer to copy
+	 * @param capacity
+	 * 			Capacity of the new buffer
+	 * @return the new buffer
+	 */
+	static ByteBuffer copy(ByteBuffer buffer, int capacity) {
+		ByteBuffer copy = ByteBuffer.allocateDirect(capacity);
+		copy.put(buffer.duplicate().clear());
+		return copy.clear();
+	}
+}
@@ -0,0 +1,124 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Index of the meeting times of the Courses in a schedule, used to find
+ * time conflicts. Each weekday has its own map of the Courses that meet
+ * that day, sorted by start time. Since no two Courses in the index
+ * overlap, a Course can only conflict with the Course that starts at or
+ * before it and the Course that starts after it, so a check takes
+ * O(log n) time for each day the Course meets.
+ *
+ * Two Courses conflict if they meet on a common day and their times
+ * overlap, including when one ends at the same time the other starts.
+ * Arranged Courses never conflict and are not kept in the index.
+ *
+ * @author Sanjana Cheerla
+ */
+class ScheduleConflictIndex {
+
+	/** Meeting days mask bit of each day in the index */
+	private static final int[] DAYS = {Course.MONDAY, Course.TUESDAY, Course.WEDNESDAY,
+			Course.THURSDAY, Course.FRIDAY};
+
+	/** Courses meeting on each day, by start time */
+	private final ArrayList<TreeMap<Integer, Course>> days;
+
+	/**
+	 * Constructs an empty index.
+	 */
+	ScheduleConflictIndex() {
+		days = new ArrayList<TreeMap<Integer, Course>>(DAYS.length);
+		for (int i = 0; i < DAYS.length; i++) {
+			days.add(new TreeMap<Integer, Course>());
+		}
+	}
+
+	/**
+	 * Returns a Course in the index that conflicts with c, or null if c
+	 * does not conflict with any Course in the index.
+	 *
+	 * @param c
+	 * 			The Course to check
+	 * @return the conflicting Course, or null if there is none
+	 */
+	Course getConflict(Course c) {
+		int mask = c.getMeetingDaysMask();
+		for (int i = 0; i < DAYS.length; i++) {
+			if ((mask & DAYS[i]) == 0) {
+				continue;
+			}
+			Map.Entry<Integer, Course> before = days.get(i).floorEntry(c.getStartTime());
+			if (before != null && before.getValue().getEndTime() >= c.getStartTime()) {
+				return before.getValue();
+			}
+			Map.Entry<Integer, Course> after = days.get(i).higherEntry(c.getStartTime());
+			if (after != null && after.getKey() <= c.getEndTime()) {
+				return after.getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns true if the two Courses meet on a common day and their times
+	 * overlap, including when one ends at the same time the other starts.
+	 * Arranged Courses never conflict. This is the same check the index
+	 * makes, for callers that can't use the index.
+	 *
+	 * @param c
+	 * 			The Course to check
+	 * @param other
+	 * 			The Course to check it against
+	 * @return true if the Courses conflict
+	 */
+	static boolean conflicts(Course c, Course other) {
+		return (c.getMeetingDaysMask() & other.getMeetingDaysMask() & ~Course.ARRANGED) != 0
+				&& c.getStartTime() <= other.getEndTime() && other.getStartTime() <= c.getEndTime();
+	}
+
+	/**
+	 * Adds the Course to the index. The Course must not conflict with any
+	 * Course already in the index.
+	 *
+	 * @param c
+	 * 			The Course to add
+	 */
+	void add(Course c) {
+		int mask = c.getMeetingDaysMask();
+		for (int i = 0; i < DAYS.length; i++) {
+			if ((mask & DAYS[i]) != 0) {
+				days.get(i).put(c.getStartTime(), c);
+			}
+		}
+	}
+
+	/**
+	 * Removes the Course from the index, if it is in the index.
+	 *
+	 * @param c
+	 * 			The Course to remove
+	 */
+	void remove(Course c) {
+		int mask = c.getMeetingDaysMask();
+		for (int i = 0; i < DAYS.length; i++) {
+			if ((mask & DAYS[i]) != 0 && c.equals(days.get(i).get(c.getStartTime()))) {
+				days.get(i).remove(c.getStartTime());
+			}
+		}
+	}
+
+	/**
+	 * Removes every Course from the index.
+	 */
+	void clear() {
+		for (int i = 0; i < DAYS.length; i++) {
+			days.get(i).clear();
+		}
+	}
+}
@@ -0,0 +1,379 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seat capacity and enrollment count of each section, shared by every
+ * WolfScheduler that is given the same seat table. Seats are kept by name
+ * and section rather than by catalog row, so the counts carry over when
+ * the catalog is reloaded.
+ *
+ * Seats are claimed and released without locking: a claim reads the
+ * enrollment count and raises it with a compare and set only if it is
+ * still below the capacity, so a section is never overbooked however
+ * many threads claim its last seat at once. A section has UNLIMITED
+ * capacity until setCapacity() is called for it.
+ *
+ * Each section also has a FIFO waitlist of schedulers. A seat released
+ * while the waitlist has students on it is held for the waitlist rather
+ * than reopened, and the student at the front is promoted into the
+ * section on a background thread, so the student releasing the seat does
+ * not wait for the promotion and no one can take the seat ahead of the
+ * waitlist. Seats cannot be claimed directly while a section's waitlist
+ * has students on it, so a seat opened by a larger capacity also goes to
+ * the waitlist first. Promotions run on one thread, one at a time, which
+ * keeps each waitlist in order. A student who can no longer take the
+ * section when their turn comes is dropped from the waitlist and the seat
+ * goes to the next one.
+ *
+ * @author Sanjana Cheerla
+ */
+public class SeatTable {
+
+	/** Capacity of a section that has no limit */
+	public static final int UNLIMITED = Integer.MAX_VALUE;
+
+	/** Thread that promotes students from waitlists */
+	private static final ExecutorService PROMOTIONS = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "waitlist-promotion");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** Seats of each section that has been used, by name and section */
+	private final ConcurrentHashMap<String, Seats> sections = new ConcurrentHashMap<String, Seats>();
+
+	/**
+	 * Sets the number of seats in the section with the given name and
+	 * section. If more students are already enrolled than the new
+	 * capacity, they stay enrolled, but no more seats can be claimed
+	 * until enough are released.
+	 *
+	 * @param name
+	 * 			The name of the course
+	 * @param section
+	 * 			The section of the course
+	 * @param capacity
+	 * 			The number of seats, or UNLIMITED
+	 * @throws IllegalArgumentException
+	 * 			If the capacity is negative
+	 */
+	public void setCapacity(String name, String section, int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity cannot be negative");
+		}
+		Seats seats = seatsOf(name, section);
+		seats.capacity = capacity;
+		//a larger capacity may open seats for the waitlist
+		if (!seats.waitlist.isEmpty()) {
+			PROMOTIONS.execute(() -> promote(name, section, seats, false));
+		}
+	}
+
+	/**
+	 * Returns the number of seats in the section.
+	 *
+	 * @param name
+	 * 			The name of the course
+	 * @param section
+	 * 			The section of the course
+	 * @return the capacity of the section, or UNLIMITED
+	 */
+	public int getCapacity(String name, String section) {
+		Seats seats = sections.get(key(name, section));
+		return seats == null ? UNLIMITED : seats.capacity;
+	}
+
+	/**
+	 * Returns the number of students enrolled in the section.
+	 *
+	 * @param name
+	 * 			The name of the course
+	 * @param section
+	 * 			The section of the course
+	 * @return the enrollment count of the section
+	 */
+	public int getEnrollment(String name, String section) {
+		Seats seats = sections.get(key(name, section));
+		return seats == null ? 0 : seats.enrolled.get();
+	}
+
+	/**
+	 * Claims a seat in the section if one is open and no student is on
+	 * the section's waitlist. While students are waiting, open seats are
+	 * left for them to be promoted into.
+	 *
+	 * @param name
+	 * 			The name of the course
+	 * @param section
+	 * 			The section of the course
+	 * @return true if a seat was claimed, false if the section is full or
+	 * 			students are waiting for it
+	 */
+	boolean claim(String name, String section) {
+		Seats seats = seatsOf(name, section);
+		if (!seats.waitlist.isEmpty()) {
+			return false;
+		}
+		return claim(seats);
+	}
+
+	/**
+	 * Claims one of the seats if one is open.
+	 *
+	 * @param seats
+	 * 			The seats of a section
+	 * @return true if a seat was claimed, false if the section is full
+	 */
+	private static boolean claim(Seats seats) {
+		while (true) {
+			int enrolled = seats.enrolled.get();
+			if (enrolled >= seats.capacity) {
+				return false;
+			}
+			if (seats.enrolled.compareAndSet(enrolled, enrolled + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of students on the waitlist of the section. A
+	 * student who left the waitlist or was promoted is no longer counted.
+	 *
+	 * @param name
+	 * 			The name of the course
+	 * @param section
+	 * 			The section of the course
+	 * @return the length of the section's waitlist
+	 */
+	public int getWaitlistLength(String name, String section) {
+		Seats seats = sections.get(key(name, section));
+		return seats == null ? 0 : seats.waiting.get();
+	}
+
+	/**
+	 * Releases a seat claimed in the section. If the section's waitlist
+	 * has students on it, the seat is held for the waitlist and the
+	 * student at the front is promoted on the background thread.
+	 *
+	 * @param name
+	 * 			The name of the course
+	 * @param section
+	 * 			The section of the course
+	 */
+	void release(String name, String section) {
+		Seats seats = sections.get(key(name, section));
+		if (seats == null) {
+			return;
+		}
+		if (seats.waitlist.isEmpty()) {
+			seats.enrolled.decrementAndGet();
+		} else {
+			PROMOTIONS.execute(() -> promote(name, section, seats, true));
+		}
+	}
+
+	/**
+	 * Adds the scheduler to the end of the section's waitlist. If the
+	 * section has an open seat, for example one released just before the
+	 * scheduler joined, a promotion is started for it.
+	 *
+	 * @param name
+	 * 			The name of the course
+	 * @param section
+	 * 			The section of the course
+	 * @param scheduler
+	 * 			The scheduler of the student joining the waitlist
+	 * @return the scheduler's place on the waitlist
+	 */
+	WaitlistEntry joinWaitlist(String name, String section, WolfScheduler scheduler) {
+		Seats seats = seatsOf(name, section);
+		WaitlistEntry entry = new WaitlistEntry(name, section, seats, scheduler);
+		seats.waiting.incrementAndGet();
+		seats.waitlist.add(entry);
+		PROMOTIONS.execute(() -> promote(name, section, seats, false));
+		return entry;
+	}
+
+	/**
+	 * Gives open seats in the section to the students at the front of its
+	 * waitlist, for as long as there are open seats and students waiting.
+	 * Only run on the promotion thread.
+	 *
+	 * @param name
+	 * 			The name of the course
+	 * @param section
+	 * 			The section of the course
+	 * @param seats
+	 * 			The seats of the section
+	 * @param held
+	 * 			True if a released seat is being held for the waitlist
+	 */
+	private static void promote(String name, String section, Seats seats, boolean held) {
+		boolean seat = held;
+		while (true) {
+			if (!seat) {
+				seat = claim(seats);
+				if (!seat) {
+					return;
+				}
+			}
+			WaitlistEntry entry = seats.waitlist.poll();
+			if (entry == null) {
+				seats.enrolled.decrementAndGet();
+				return;
+			}
+			seats.waiting.decrementAndGet();
+			WolfScheduler scheduler = entry.scheduler;
+			if (scheduler != null && scheduler.addFromWaitlist(name, section, entry)) {
+				seat = false;
+			}
+		}
+	}
+
+	/**
+	 * Returns the seats of the section, adding them to the table if the
+	 * section has not been used yet.
+	 *
+	 * @param name
+	 * 			The name of the course
+	 * @param section
+	 * 			The section of the course
+	 * @return the seats of the section
+	 */
+	private Seats seatsOf(String name, String section) {
+		String key = key(name, section);
+		Seats seats = sections.get(key);
+		if (seats == null) {
+			seats = sections.computeIfAbsent(key, k -> new Seats());
+		}
+		return seats;
+	}
+
+	/**
+	 * Returns the key of a section in the table.
+	 *
+	 * @param name
+	 * 			The name of the course
+	 * @param section
+	 * 			The section of the course
+	 * @return the key of the section
+	 */
+	static String key(String name, String section) {
+		return name + "-" + section;
+	}
+
+	/**
+	 * Capacity and enrollment count of one section.
+	 *
+	 * @author Sanjana Cheerla
+	 */
+	private static class Seats {
+
+		/** Number of seats in the section */
+		private volatile int capacity = UNLIMITED;
+
+		/** Number of seats claimed, including a seat held for the waitlist */
+		private final AtomicInteger enrolled = new AtomicInteger();
+
+		/** Students waiting for a seat, in the order they joined */
+		private final ConcurrentLinkedQueue<WaitlistEntry> waitlist = new ConcurrentLinkedQueue<WaitlistEntry>();
+
+		/** Number of students on the waitlist, lowered once for each who leaves it or is promoted */
+		private final AtomicInteger waiting = new AtomicInteger();
+	}
+
+	/**
+	 * A student's place on a section's waitlist.
+	 *
+	 * @author Sanjana Cheerla
+	 */
+	static class WaitlistEntry {
+
+		/** The name of the course */
+		private final String name;
+
+		/** The section of the course */
+		private final String section;
+
+		/** The seats of the section */
+		private final Seats seats;
+
+		/** The scheduler of the waiting student, or null once they have left the waitlist */
+		private volatile WolfScheduler scheduler;
+
+		/**
+		 * Constructs a place on a waitlist.
+		 *
+		 * @param name
+		 * 			The name of the course
+		 * @param section
+		 * 			The section of the course
+		 * @param seats
+		 * 			The seats of the section
+		 * @param scheduler
+		 * 			The scheduler of the waiting student
+		 */
+		private WaitlistEntry(String name, String section, Seats seats, WolfScheduler scheduler) {
+			this.name = name;
+			this.section = section;
+			this.seats = seats;
+			this.scheduler = scheduler;
+		}
+
+		/**
+		 * Returns the name of the course the place is for.
+		 *
+		 * @return the name of the course
+		 */
+		String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the section of the course the place is for.
+		 *
+		 * @return the section of the course
+		 */
+		String getSection() {
+			return section;
+		}
+
+		/**
+		 * Returns the position of the place on the waitlist, from 1 at the
+		 * front. Only the students still on the waitlist ahead of the place
+		 * are counted, so the waitlist is walked up to the place. A place
+		 * that is being promoted is at the front.
+		 *
+		 * @return the position on the waitlist
+		 */
+		int getPosition() {
+			int position = 1;
+			for (WaitlistEntry entry : seats.waitlist) {
+				if (entry == this) {
+					return position;
+				}
+				position++;
+			}
+			return 1;
+		}
+
+		/**
+		 * Takes the student off the waitlist. The place is removed from the
+		 * waitlist and lets go of the student's scheduler, so a table that
+		 * outlives the scheduler does not keep it from being collected. If
+		 * the promotion thread has already taken the place, it is skipped.
+		 */
+		void cancel() {
+			scheduler = null;
+			if (seats.waitlist.remove(this)) {
+				seats.waiting.decrementAndGet();
+			}
+		}
+	}
+}
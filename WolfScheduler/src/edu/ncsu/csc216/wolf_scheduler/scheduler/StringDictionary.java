@@ -0,0 +1,70 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Dictionary that gives each distinct String an int id, from 0 in the
+ * order the Strings were added, so a catalog can store a String field as
+ * an int for each row.
+ *
+ * @author Sanjana Cheerla
+ */
+class StringDictionary {
+
+	/** The Strings, by id */
+	private final ArrayList<String> strings = new ArrayList<String>();
+
+	/** The id of each String */
+	private final HashMap<String, Integer> ids = new HashMap<String, Integer>();
+
+	/**
+	 * Returns the id of the String, adding it to the dictionary if it is
+	 * not there yet.
+	 *
+	 * @param s
+	 * 			The String to add
+	 * @return the id of the String
+	 */
+	int add(String s) {
+		Integer id = ids.get(s);
+		if (id == null) {
+			id = strings.size();
+			strings.add(s);
+			ids.put(s, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the id of the String.
+	 *
+	 * @param s
+	 * 			The String to find
+	 * @return the id of the String, or -1 if it is not in the dictionary
+	 */
+	int idOf(String s) {
+		Integer id = ids.get(s);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Returns the String with the given id.
+	 *
+	 * @param id
+	 * 			The id of the String
+	 * @return the String
+	 */
+	String get(int id) {
+		return strings.get(id);
+	}
+
+	/**
+	 * Returns the number of Strings in the dictionary.
+	 *
+	 * @return the size of the dictionary
+	 */
+	int size() {
+		return strings.size();
+	}
+}
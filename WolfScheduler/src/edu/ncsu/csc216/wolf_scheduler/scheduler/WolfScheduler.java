@@ -1,8 +1,10 @@
 package edu.ncsu.csc216.wolf_scheduler.scheduler;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
@@ -13,19 +15,39 @@ import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
  * courses from the provided file and also a schedule for
  * a student.
  * 
+ * A WolfScheduler can be used by many threads at once. The
+ * schedule is a snapshot that is never changed once it is
+ * published: each change copies it, makes the change, and
+ * publishes the copy while holding a lock, so changes happen
+ * one at a time and methods that only read the schedule never
+ * wait for a change to finish.
+ * 
  * @author Sanjana Cheerla
  *
  */
 public class WolfScheduler {
 	
 	/** Title of the schedule */
-	private String title;
+	private volatile String title;
+	
+	/** The schedule, replaced with a changed copy instead of being changed */
+	private volatile ArrayList<Course> schedule;
 	
-	/** The schedule */
-	private ArrayList<Course> schedule;
+	/** Meeting times of the scheduled courses, used to find conflicts, guarded by lock */
+	private final ScheduleConflictIndex scheduleConflicts;
 	
 	/**  The catalog of courses */
-	private ArrayList<Course> catalog;
+	private volatile CourseCatalog catalog;
+	
+	/** Lock held while the schedule or catalog is changed */
+	private final Object lock = new Object();
+	
+	/** Seats of the catalog sections, shared only with the schedulers given the same seat table */
+	private final SeatTable seats;
+	
+	/** Places on section waitlists, by name and section, only changed while holding lock */
+	private final ConcurrentHashMap<String, SeatTable.WaitlistEntry> waitlists =
+			new ConcurrentHashMap<String, SeatTable.WaitlistEntry>();
 	
 	/** The number of rows used in getCourseCatalog() and getScheduledCourses() */
 	private static final int SCHEDULE_COURSE_INDEX = 3;
@@ -33,14 +55,42 @@ public class WolfScheduler {
 	/** The number of rows used in getFullScheduledCourses() */
 	private static final int FULL_SCHEDULE_COURSE_INDEX = 6;
 	
+	/** Column of the course name in a table view */
+	private static final int NAME_COLUMN = 0;
+	
+	/** Column of the course section in a table view */
+	private static final int SECTION_COLUMN = 1;
+	
+	/** Column of the course title in a table view */
+	private static final int TITLE_COLUMN = 2;
+	
+	/** Column of the course credits in a table view */
+	private static final int CREDITS_COLUMN = 3;
+	
+	/** Column of the course instructorId in a table view */
+	private static final int INSTRUCTOR_COLUMN = 4;
+	
+	/** Column of the course meeting string in a table view */
+	private static final int MEETING_COLUMN = 5;
+	
+	/** Number of changes made to the catalog and schedule, only changed while holding lock */
+	private volatile int modificationCount;
+	
+	/** Number of times the catalog was reloaded, only changed while holding lock */
+	private volatile int catalogModificationCount;
+	
 	/**
 	 * Constructs a WolfScheduler Object, title is
 	 * initialized to "My Schedule". A new scheduled is 
-	 * initialized to an ArrayList of courses. A catalog of
-	 * courses, consisting of an Array List, is made from the given
-	 * file name parameter. If there is an error regarding the 
+	 * initialized to an ArrayList of courses. The catalog of
+	 * courses for the given file name parameter is taken from
+	 * the CatalogCache, so the file is only read once for every
+	 * WolfScheduler in the process. The scheduler has its own seat
+	 * table; schedulers that should compete for the same seats are made
+	 * with WolfScheduler(CourseCatalog, SeatTable) and the seat table
+	 * from CatalogCache.getSeatTable(). If there is an error regarding the 
 	 * fileName, an IllegalArgumentException is thrown with
-	 * the message "Cannot find file"
+	 * the message "Cannot find file".
 	 * 
 	 * @param fileName 
 	 * 			The file name for course records
@@ -49,14 +99,168 @@ public class WolfScheduler {
 	 * 			the message "Cannot find file" 
 	 */
 	public WolfScheduler(String fileName) {
-		try {
-			setTitle("My Schedule");
-			catalog = CourseRecordIO.readCourseRecords(fileName);
-			schedule = new ArrayList<Course>();
+		this(CatalogCache.getCatalog(fileName), new SeatTable());
+	}
+	
+	/**
+	 * Constructs a WolfScheduler Object that schedules from the given
+	 * catalog, with its own seat table. The title is initialized to
+	 * "My Schedule" and the schedule starts empty.
+	 * 
+	 * @param catalog 
+	 * 			The catalog of courses
+	 * @throws IllegalArgumentException 
+	 * 			If the catalog is null
+	 */
+	public WolfScheduler(CourseCatalog catalog) {
+		this(catalog, new SeatTable());
+	}
+	
+	/**
+	 * Constructs a WolfScheduler Object that schedules from the given
+	 * catalog and claims seats from the given seat table, which may be
+	 * shared with other schedulers. A scheduler holds its seats and
+	 * waitlist places until they are released, so a scheduler sharing a
+	 * seat table should have resetSchedule() called on it before it is
+	 * discarded. The title is initialized to "My Schedule" and the
+	 * schedule starts empty.
+	 * 
+	 * @param catalog 
+	 * 			The catalog of courses
+	 * @param seats 
+	 * 			The seats of the catalog sections
+	 * @throws IllegalArgumentException 
+	 * 			If the catalog or seat table is null
+	 */
+	public WolfScheduler(CourseCatalog catalog, SeatTable seats) {
+		if(catalog == null) {
+			throw new IllegalArgumentException("Catalog cannot be null");
 		}
-		catch(FileNotFoundException e) {
-			throw new IllegalArgumentException("Cannot find file");
+		if(seats == null) {
+			throw new IllegalArgumentException("Seat table cannot be null");
 		}
+		setTitle("My Schedule");
+		this.catalog = catalog;
+		this.seats = seats;
+		schedule = new ArrayList<Course>();
+		scheduleConflicts = new ScheduleConflictIndex();
+	}
+	
+	/**
+	 * Reloads the catalog from the given file, keeping the schedule. If
+	 * the catalog is a ListCourseCatalog, the catalog for the file is
+	 * taken from the CatalogCache, which only reads the file again if it
+	 * changed, so every WolfScheduler that reloads the same file shares
+	 * the new catalog. Any other kind of catalog is replaced with a new
+	 * catalog of the same kind read from the file. Either way, a section
+	 * that did not change is given to the new catalog as its current
+	 * Course object, so a catalog that keeps Course objects keeps the
+	 * same one. If no section was added, removed or changed, the catalog
+	 * is kept as it is and nothing is counted as a change.
+	 * 
+	 * A scheduled course whose section changed is replaced in the schedule
+	 * with the new version of the section, and one whose section was
+	 * removed from the catalog is removed from the schedule. If the new
+	 * version of a section now conflicts with an earlier course in the
+	 * schedule, it is removed from the schedule as well. The returned
+	 * list has the old version of each of those scheduled courses, so the
+	 * student can be told about them. The seat of each course removed from
+	 * the schedule is released, and the student is taken off the waitlist
+	 * of each section that was removed from the catalog. The file is read
+	 * before the lock is taken, so other changes only wait while the
+	 * schedule is updated.
+	 * 
+	 * @param fileName 
+	 * 			The file name for course records
+	 * @return the scheduled courses that were changed or removed, as
+	 * 			they were before the reload
+	 * @throws IllegalArgumentException 
+	 * 			If the file cannot be accessed, with 
+	 * 			the message "Cannot find file" 
+	 */
+	public ArrayList<Course> reloadCatalog(String fileName) {
+		CourseCatalog current = this.catalog;
+		CourseCatalog newCatalog;
+		if(current instanceof ListCourseCatalog) {
+			newCatalog = CatalogCache.getCatalog(fileName);
+		} else {
+			newCatalog = current.withCourses(CatalogCache.readCatalog(fileName, current));
+		}
+		boolean unchanged = sameCourses(current, newCatalog);
+		ArrayList<Course> changed = new ArrayList<Course>();
+		synchronized(lock) {
+			if(unchanged && catalog == current) {
+				return changed;
+			}
+			catalog = newCatalog;
+			ArrayList<Course> newSchedule = new ArrayList<Course>(schedule);
+			//sections replaced with a new version, whose old version is already in changed
+			HashSet<String> replaced = new HashSet<String>();
+			for(int i = newSchedule.size() - 1; i >= 0; i--) {
+				Course scheduled = newSchedule.get(i);
+				Course c = getCourseFromCatalog(scheduled.getName(), scheduled.getSection());
+				if(c == null) {
+					newSchedule.remove(i);
+					seats.release(scheduled.getName(), scheduled.getSection());
+					changed.add(0, scheduled);
+				} else if(!c.equals(scheduled)) {
+					newSchedule.set(i, c);
+					replaced.add(SeatTable.key(c.getName(), c.getSection()));
+					changed.add(0, scheduled);
+				}
+			}
+			
+			scheduleConflicts.clear();
+			for(int i = 0; i < newSchedule.size(); i++) {
+				Course c = newSchedule.get(i);
+				if(scheduleConflicts.getConflict(c) == null) {
+					scheduleConflicts.add(c);
+				} else {
+					newSchedule.remove(i--);
+					seats.release(c.getName(), c.getSection());
+					if(!replaced.contains(SeatTable.key(c.getName(), c.getSection()))) {
+						changed.add(c);
+					}
+				}
+			}
+			schedule = newSchedule;
+			
+			Iterator<SeatTable.WaitlistEntry> entries = waitlists.values().iterator();
+			while(entries.hasNext()) {
+				SeatTable.WaitlistEntry entry = entries.next();
+				if(newCatalog.indexOf(entry.getName(), entry.getSection()) < 0) {
+					entry.cancel();
+					entries.remove();
+				}
+			}
+			modificationCount++;
+			catalogModificationCount++;
+		}
+		return changed;
+	}
+	
+	/**
+	 * Returns true if the two catalogs have equal Courses in the same rows.
+	 * 
+	 * @param catalog 
+	 * 			The catalog to compare
+	 * @param other 
+	 * 			The catalog to compare it to
+	 * @return true if no section was added, removed or changed
+	 */
+	private static boolean sameCourses(CourseCatalog catalog, CourseCatalog other) {
+		if(catalog == other) {
+			return true;
+		}
+		if(catalog.size() != other.size()) {
+			return false;
+		}
+		for(int i = 0; i < catalog.size(); i++) {
+			if(!catalog.getCourse(i).equals(other.getCourse(i))) {
+				return false;
+			}
+		}
+		return true;
 	}
 	
 	/**
@@ -69,18 +273,15 @@ public class WolfScheduler {
 	 * @param section 
 	 * 			The section of the Course being found
 	 * @return the Course if it is found, null if there is no
-	 * such Course in the catalog
+	 * such Course in the catalog. Catalog Courses are frozen, so
+	 * they cannot be changed.
 	 */
 	public Course getCourseFromCatalog(String name, String section) {
-		
-		for(int i = 0; i < catalog.size(); i++) {
-			if(catalog.get(i).getName().equals(name) &&
-					catalog.get(i).getSection().contentEquals(section)) {
-				return catalog.get(i);
-			}
+		int row = catalog.indexOf(name, section);
+		if(row < 0) {
+			return null;
 		}
-		
-		return null;
+		return catalog.getCourse(row);
 	}
 	
 	/**
@@ -121,15 +322,57 @@ public class WolfScheduler {
 	 * 			one for the title, and one for the section number.
 	 */
 	public String[][] getCourseCatalog() {
-		if(this.catalog.isEmpty()) {
+		CourseCatalog current = this.catalog;
+		if(current.size() == 0) {
 			return new String[0][0];
 		}
-		String[][] courseCatalog = new String[this.catalog.size()][SCHEDULE_COURSE_INDEX];
+		String[][] courseCatalog = new String[current.size()][SCHEDULE_COURSE_INDEX];
 		for(int i = 0; i < courseCatalog.length; i++) {
 			int index = 0;
-			courseCatalog[i][index] = this.catalog.get(i).getName();
-			courseCatalog[i][++index] = this.catalog.get(i).getSection();
-			courseCatalog[i][++index] = this.catalog.get(i).getTitle();
+			courseCatalog[i][index] = current.getName(i);
+			courseCatalog[i][++index] = current.getSection(i);
+			courseCatalog[i][++index] = current.getTitle(i);
+		}
+		return courseCatalog;
+	}
+
+	/**
+	 * Organizes the catalog courses that can be added to the student
+	 * schedule into a 2D array, in the same form as getCourseCatalog().
+	 * A course is left out if it conflicts with a course in the schedule,
+	 * or if it is a section of a course that is already in the schedule,
+	 * since addCourse() would refuse either one. The courses to leave out
+	 * are found with an index of the catalog's meeting times and course
+	 * names, and the rows between them are copied without checking each
+	 * one, so the cost grows with the number of rows returned and left
+	 * out instead of the size of the catalog times the size of the
+	 * schedule.
+	 * 
+	 * @return String[][]
+	 * 			2D String array of the catalog courses that fit the 
+	 * 			schedule, with one row for each course, and in the columns,
+	 * 			one for the name, one for the section, and one for the title.
+	 */
+	public String[][] getNonConflictingCourseCatalog() {
+		CourseCatalog current = this.catalog;
+		ArrayList<Course> currentSchedule = this.schedule;
+		int[] unavailable = CatalogIntervalIndex.of(current).getUnavailableRows(currentSchedule);
+		if(unavailable.length == current.size()) {
+			return new String[0][0];
+		}
+		String[][] courseCatalog = new String[current.size() - unavailable.length][SCHEDULE_COURSE_INDEX];
+		int row = 0;
+		int next = 0;
+		for(int i = 0; i <= unavailable.length; i++) {
+			int end = i < unavailable.length ? unavailable[i] : current.size();
+			for(; next < end; next++) {
+				int index = 0;
+				courseCatalog[row][index] = current.getName(next);
+				courseCatalog[row][++index] = current.getSection(next);
+				courseCatalog[row][++index] = current.getTitle(next);
+				row++;
+			}
+			next = end + 1;
 		}
 		return courseCatalog;
 	}
@@ -145,15 +388,16 @@ public class WolfScheduler {
 	 * 			one for the title, and one for the section number.
 	 */
 	public String[][] getScheduledCourses() {
-		if(this.schedule.isEmpty()) {
+		ArrayList<Course> currentSchedule = this.schedule;
+		if(currentSchedule.isEmpty()) {
 			return new String[0][0];
 		}
-		String[][] scheduleCatalog = new String[this.schedule.size()][SCHEDULE_COURSE_INDEX];
+		String[][] scheduleCatalog = new String[currentSchedule.size()][SCHEDULE_COURSE_INDEX];
 		for(int i = 0; i < scheduleCatalog.length; i++) {
 			int index = 0;
-			scheduleCatalog[i][index] = this.schedule.get(i).getName();
-			scheduleCatalog[i][++index] = this.schedule.get(i).getSection();
-			scheduleCatalog[i][++index] = this.schedule.get(i).getTitle();
+			scheduleCatalog[i][index] = currentSchedule.get(i).getName();
+			scheduleCatalog[i][++index] = currentSchedule.get(i).getSection();
+			scheduleCatalog[i][++index] = currentSchedule.get(i).getTitle();
 		}
 		return scheduleCatalog;
 	}
@@ -172,25 +416,110 @@ public class WolfScheduler {
 	 * 			the courses meet.
 	 */
 	public String[][] getFullScheduledCourses() {
-		if(this.schedule.isEmpty()) {
+		ArrayList<Course> currentSchedule = this.schedule;
+		if(currentSchedule.isEmpty()) {
 			return new String[0][0];
 		}
-		String[][] scheduleCatalog = new String[this.schedule.size()][FULL_SCHEDULE_COURSE_INDEX];
+		String[][] scheduleCatalog = new String[currentSchedule.size()][FULL_SCHEDULE_COURSE_INDEX];
 		for(int i = 0; i < scheduleCatalog.length; i++) {
 			int index = 0;
-			scheduleCatalog[i][index] = this.schedule.get(i).getName();
-			scheduleCatalog[i][++index] = this.schedule.get(i).getSection();
-			scheduleCatalog[i][++index] = this.schedule.get(i).getTitle();
-			int credits = this.schedule.get(i).getCredits();
+			scheduleCatalog[i][index] = currentSchedule.get(i).getName();
+			scheduleCatalog[i][++index] = currentSchedule.get(i).getSection();
+			scheduleCatalog[i][++index] = currentSchedule.get(i).getTitle();
+			int credits = currentSchedule.get(i).getCredits();
 			scheduleCatalog[i][++index] = Integer.toString(credits);
-			scheduleCatalog[i][++index] = this.schedule.get(i).getInstructorId();
-			scheduleCatalog[i][++index] = this.schedule.get(i).getMeetingString();
+			scheduleCatalog[i][++index] = currentSchedule.get(i).getInstructorId();
+			scheduleCatalog[i][++index] = currentSchedule.get(i).getMeetingString();
 		}
 		return scheduleCatalog;
 	}
 
 	/**
-	 * Exports the current schedule to the given file.
+	 * Returns the seat table the schedule claims seats from. The
+	 * capacity of a section is set through the seat table.
+	 * 
+	 * @return the seat table of the catalog sections
+	 */
+	public SeatTable getSeatTable() {
+		return seats;
+	}
+
+	/**
+	 * Returns a read-only view of the catalog in the same form as
+	 * getCourseCatalog(). The view reads each cell from the catalog
+	 * when it is asked for, without copying the catalog. It is bound to
+	 * the catalog as it is now, so its rows do not change if the catalog
+	 * is reloaded; a new view is needed to show the new catalog.
+	 * 
+	 * @return view of the catalog, with one row for each course, and in
+	 * 			the columns, one for the name, one for the section, and one
+	 * 			for the title.
+	 */
+	public CourseTableView getCourseCatalogView() {
+		return new CatalogView(catalog);
+	}
+
+	/**
+	 * Returns a read-only view of the schedule in the same form as
+	 * getScheduledCourses(). The view reads each cell from the schedule
+	 * when it is asked for, without copying the schedule. It is bound to
+	 * the schedule as it is now, so its row count and cells always agree,
+	 * and a new view is needed to show later changes.
+	 * 
+	 * @return view of the schedule, with one row for each course, and in
+	 * 			the columns, one for the name, one for the section, and one
+	 * 			for the title.
+	 */
+	public CourseTableView getScheduledCoursesView() {
+		return new ScheduleView(schedule, SCHEDULE_COURSE_INDEX);
+	}
+
+	/**
+	 * Returns a read-only view of the schedule in the same form as
+	 * getFullScheduledCourses(). The view reads each cell from the
+	 * schedule when it is asked for, without copying the schedule. It is
+	 * bound to the schedule as it is now, so its row count and cells
+	 * always agree, and a new view is needed to show later changes.
+	 * 
+	 * @return view of the schedule, with one row for each course, and in
+	 * 			the columns, one for the name, one for the section, one for
+	 * 			the title, one for the number of credits, one for the
+	 * 			instructorId, and one for the meeting string.
+	 */
+	public CourseTableView getFullScheduledCoursesView() {
+		return new ScheduleView(schedule, FULL_SCHEDULE_COURSE_INDEX);
+	}
+
+	/**
+	 * Returns the number of changes made to the catalog and schedule.
+	 * The count goes up each time a course is added or removed, the
+	 * schedule is reset, or a reload adds, removes or changes a section
+	 * of the catalog, so a caller that
+	 * saved the count can tell whether the tables need to be shown again.
+	 * 
+	 * @return the number of changes made
+	 */
+	public int getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Returns the number of changes made to the catalog. The count only
+	 * goes up when a reload adds, removes or changes a section of the
+	 * catalog, so a caller showing the
+	 * catalog can tell whether it needs to be shown again without
+	 * refreshing it each time the schedule changes.
+	 * 
+	 * @return the number of changes made to the catalog
+	 */
+	public int getCatalogModificationCount() {
+		return catalogModificationCount;
+	}
+
+	/**
+	 * Exports the current schedule to the given file. The file is
+	 * replaced in one atomic step, so it is never left with only
+	 * part of the schedule.
 	 * 
 	 * @param fileName 
 	 * 			The name of the file that the course is being written to
@@ -199,8 +528,26 @@ public class WolfScheduler {
 	 * 				if an IOException is caught.
 	 */
 	public void exportSchedule(String fileName) {
+		exportSchedule(fileName, false);
+	}
+
+	/**
+	 * Exports the current schedule to the given file. The file is
+	 * replaced in one atomic step, so it is never left with only
+	 * part of the schedule. If sync is true, the schedule is forced
+	 * to the storage device before the file is replaced.
+	 * 
+	 * @param fileName 
+	 * 			The name of the file that the course is being written to
+	 * @param sync 
+	 * 			True to force the schedule to the storage device
+	 * @throws IllegalArgumentException 
+	 * 				With the message "The file cannot be saved" 
+	 * 				if an IOException is caught.
+	 */
+	public void exportSchedule(String fileName, boolean sync) {
 		try {
-			CourseRecordIO.writeCourseRecords(fileName, schedule);
+			CourseRecordIO.writeCourseRecordsAtomically(fileName, schedule, sync);
 		}
 		catch (IOException e) {
 			throw new IllegalArgumentException("The file cannot be saved.");
@@ -210,8 +557,12 @@ public class WolfScheduler {
 	/**
 	 * Adds the specified course to the student schedule. If the 
 	 * course is already added in the schedule an exception is thrown.
-	 * If the course does not exist in the catalog the method returns
-	 * false. If the course exists and is not in the student schedule.
+	 * If the course meets at the same time as a course in the schedule
+	 * an exception is thrown. If the section has no open seat, or
+	 * students are on its waitlist, an exception is thrown, so no one
+	 * takes a seat ahead of the waitlist. If the course does not exist
+	 * in the catalog the method returns false. If the course exists and
+	 * is not in the student schedule, a seat is claimed in the section,
 	 * the course is added to the schedule and a value of true is returned.
 	 * 
 	 * @param name 
@@ -221,31 +572,219 @@ public class WolfScheduler {
 	 * @throws IllegalArgumentException 
 	 * 			With the message "You are already enrolled in " 
 	 * 			if the course with the same name
-	 * 			exists in the student schedule.
+	 * 			exists in the student schedule, or with the message
+	 * 			"The course cannot be added due to a conflict with "
+	 * 			and the conflicting course's name and section if the
+	 * 			course conflicts with a scheduled course, or with the
+	 * 			message "The course cannot be added because " and the
+	 * 			course's name and section followed by " is full" if
+	 * 			every seat in the section is taken or students are
+	 * 			waiting for it.
 	 * @return true if the schedule has been added to the schedule,
 	 * and false if the course is not in the course catalog
 	 */
 	public boolean addCourse(String name, String section) {
-		if(this.getCourseFromCatalog(name, section) == null) {
-			return false;
+		//the checks and the add are one step, so two threads can't both enroll in a course
+		synchronized(lock) {
+			Course c = this.getCourseFromCatalog(name, section);
+			if(c == null) {
+				return false;
+			}
+			
+			for(int i = 0; i < this.schedule.size(); i++) {
+				if(this.schedule.get(i).getName().equals(c.getName())) {
+					throw new IllegalArgumentException("You are already enrolled in " + name);
+				}
+			}
+			
+			Course conflict = scheduleConflicts.getConflict(c);
+			if(conflict != null) {
+				throw new IllegalArgumentException("The course cannot be added due to a conflict with "
+						+ conflict.getName() + "-" + conflict.getSection());
+			}
+			
+			if(!seats.claim(c.getName(), c.getSection())) {
+				throw new IllegalArgumentException("The course cannot be added because "
+						+ c.getName() + "-" + c.getSection() + " is full");
+			}
+			
+			ArrayList<Course> newSchedule = new ArrayList<Course>(this.schedule);
+			newSchedule.add(c);
+			scheduleConflicts.add(c);
+			this.schedule = newSchedule;
+			cancelWaitlists(c.getName());
+			modificationCount++;
+			return true;
 		}
-		
+	}
+
+	/**
+	 * Adds the student to the waitlist of the section with the given name
+	 * and section, for when the section is full. When a seat opens, the
+	 * student at the front of the waitlist is added to the section in the
+	 * background, as long as they are still not enrolled in the course and
+	 * it does not conflict with their schedule; otherwise they are dropped
+	 * from the waitlist. If the student is already on the waitlist, their
+	 * place is kept.
+	 * 
+	 * @param name 
+	 * 			The name of the course to wait for
+	 * @param section 
+	 * 			The section number of the course to wait for
+	 * @return the position on the waitlist, from 1 at the front, or 0 if
+	 * 			the course is not in the course catalog
+	 * @throws IllegalArgumentException 
+	 * 			With the message "You are already enrolled in " if the
+	 * 			course with the same name exists in the student schedule
+	 */
+	public int joinWaitlist(String name, String section) {
+		synchronized(lock) {
+			Course c = this.getCourseFromCatalog(name, section);
+			if(c == null) {
+				return 0;
+			}
+			for(int i = 0; i < this.schedule.size(); i++) {
+				if(this.schedule.get(i).getName().equals(c.getName())) {
+					throw new IllegalArgumentException("You are already enrolled in " + name);
+				}
+			}
+			String key = SeatTable.key(name, section);
+			SeatTable.WaitlistEntry entry = waitlists.get(key);
+			if(entry == null) {
+				entry = seats.joinWaitlist(name, section, this);
+				waitlists.put(key, entry);
+			}
+			return entry.getPosition();
+		}
+	}
+
+	/**
+	 * Returns the student's position on the waitlist of the section. Only
+	 * the students still waiting ahead of them are counted.
+	 * 
+	 * @param name 
+	 * 			The name of the course
+	 * @param section 
+	 * 			The section number of the course
+	 * @return the position on the waitlist, from 1 at the front, or 0 if
+	 * 			the student is not on the waitlist
+	 */
+	public int getWaitlistPosition(String name, String section) {
+		SeatTable.WaitlistEntry entry = waitlists.get(SeatTable.key(name, section));
+		return entry == null ? 0 : entry.getPosition();
+	}
+
+	/**
+	 * Takes the student off the waitlist of the section.
+	 * 
+	 * @param name 
+	 * 			The name of the course
+	 * @param section 
+	 * 			The section number of the course
+	 * @return true if the student was on the waitlist
+	 */
+	public boolean leaveWaitlist(String name, String section) {
+		synchronized(lock) {
+			SeatTable.WaitlistEntry entry = waitlists.remove(SeatTable.key(name, section));
+			if(entry == null) {
+				return false;
+			}
+			entry.cancel();
+			return true;
+		}
+	}
+
+	/**
+	 * Adds the section to the schedule for a student promoted from its
+	 * waitlist, using the seat the waitlist held for them. Called by the
+	 * SeatTable's promotion thread.
+	 * 
+	 * @param name 
+	 * 			The name of the course
+	 * @param section 
+	 * 			The section number of the course
+	 * @param entry 
+	 * 			The student's place on the waitlist
+	 * @return true if the course was added, or false if the student left
+	 * 			the waitlist, is already enrolled in the course, or the
+	 * 			course conflicts with their schedule
+	 */
+	boolean addFromWaitlist(String name, String section, SeatTable.WaitlistEntry entry) {
+		synchronized(lock) {
+			if(!waitlists.remove(SeatTable.key(name, section), entry)) {
+				return false;
+			}
+			Course c = this.getCourseFromCatalog(name, section);
+			if(c == null || scheduleConflicts.getConflict(c) != null) {
+				return false;
+			}
+			for(int i = 0; i < this.schedule.size(); i++) {
+				if(this.schedule.get(i).getName().equals(c.getName())) {
+					return false;
+				}
+			}
+			ArrayList<Course> newSchedule = new ArrayList<Course>(this.schedule);
+			newSchedule.add(c);
+			scheduleConflicts.add(c);
+			this.schedule = newSchedule;
+			cancelWaitlists(c.getName());
+			modificationCount++;
+			return true;
+		}
+	}
+
+	/**
+	 * Takes the student off the waitlists of every section of the course
+	 * with the given name, once they are enrolled in it. Only called while
+	 * holding lock.
+	 * 
+	 * @param name 
+	 * 			The name of the course
+	 */
+	private void cancelWaitlists(String name) {
+		Iterator<String> keys = waitlists.keySet().iterator();
+		while(keys.hasNext()) {
+			String key = keys.next();
+			if(key.startsWith(SeatTable.key(name, ""))) {
+				waitlists.get(key).cancel();
+				keys.remove();
+			}
+		}
+	}
+
+	/**
+	 * Returns the course in the student schedule that meets at the same
+	 * time as the course with the given name and section, or null if they
+	 * do not conflict. Two courses conflict if they meet on a common day
+	 * and their times overlap, including when one ends at the time the
+	 * other starts. Arranged courses never conflict. The check reads the
+	 * current schedule snapshot, so it never waits for a change to finish.
+	 * 
+	 * @param name 
+	 * 			The name of the course to check
+	 * @param section 
+	 * 			The section number of the course to check
+	 * @return the conflicting scheduled course, or null if the course
+	 * does not conflict or is not in the course catalog
+	 */
+	public Course getConflictingCourse(String name, String section) {
 		Course c = this.getCourseFromCatalog(name, section);
-		
-		for(int i = 0; i < this.schedule.size(); i++) {
-			if(this.schedule.get(i).getName().equals(c.getName())) {
-				throw new IllegalArgumentException("You are already enrolled in " + name);
+		if(c == null) {
+			return null;
+		}
+		ArrayList<Course> currentSchedule = this.schedule;
+		for(int i = 0; i < currentSchedule.size(); i++) {
+			if(ScheduleConflictIndex.conflicts(c, currentSchedule.get(i))) {
+				return currentSchedule.get(i);
 			}
 		}
-		
-		this.schedule.add(c);
-		return true;
+		return null;
 	}
 
 	/**
 	 * If the course is in the student schedule, this
 	 * method removes that specified course from the 
-	 * schedule and returns true if the course can be 
+	 * schedule, releases its seat, and returns true if the course can be 
 	 * removed. If the schedule does not contain the 
 	 * course then the method returns false.
 	 * 
@@ -257,23 +796,348 @@ public class WolfScheduler {
 	 * false if the course does not exist in the schedule.
 	 */
 	public boolean removeCourse(String name, String section) {
-		Course c = this.getCourseFromCatalog(name, section);
-		if(!this.schedule.contains(c)) {
-			return false;
-		}
-		if(this.schedule.contains(c)) {
-			this.schedule.remove(c);
+		synchronized(lock) {
+			Course c = this.getCourseFromCatalog(name, section);
+			if(!this.schedule.contains(c)) {
+				return false;
+			}
+			ArrayList<Course> newSchedule = new ArrayList<Course>(this.schedule);
+			newSchedule.remove(c);
+			scheduleConflicts.remove(c);
+			seats.release(c.getName(), c.getSection());
+			this.schedule = newSchedule;
+			modificationCount++;
 			return true;
 		}
-		return false;
 	}
 
 	/**
-	 * Resets the schedule by removing all elements.
+	 * Adds every course in the batch to the student schedule, or none of
+	 * them. Each entry of the batch is a name and section. The batch is
+	 * checked against the catalog, the schedule and itself in one pass
+	 * while the schedule is locked: a course is not added if a course
+	 * with the same name is in the schedule or earlier in the batch, if it
+	 * conflicts with the schedule or a course earlier in the batch, or if
+	 * its section is full or has students on its waitlist. If every
+	 * course can be added, a seat is claimed for each one and they are
+	 * all added in one change to the schedule; otherwise nothing changes
+	 * and any seats claimed are released. No exceptions are thrown for courses that can't be added.
+	 * 
+	 * @param courses 
+	 * 			The name and section of each course to add
+	 * @return the result for each entry of the batch, ADDED for every
+	 * 			entry if the batch was applied
+	 */
+	public BatchStatus[] addCourses(String[][] courses) {
+		if(courses == null) {
+			return new BatchStatus[0];
+		}
+		BatchStatus[] results = new BatchStatus[courses.length];
+		synchronized(lock) {
+			HashSet<String> names = new HashSet<String>();
+			for(int i = 0; i < this.schedule.size(); i++) {
+				names.add(this.schedule.get(i).getName());
+			}
+			Course[] added = new Course[courses.length];
+			boolean valid = true;
+			for(int i = 0; i < courses.length; i++) {
+				if(!isPair(courses[i])) {
+					results[i] = BatchStatus.INVALID;
+					valid = false;
+					continue;
+				}
+				Course c = this.getCourseFromCatalog(courses[i][0], courses[i][1]);
+				if(c == null) {
+					results[i] = BatchStatus.NOT_IN_CATALOG;
+				} else if(names.contains(c.getName())) {
+					results[i] = BatchStatus.ALREADY_ENROLLED;
+				} else if(scheduleConflicts.getConflict(c) != null) {
+					results[i] = BatchStatus.CONFLICT;
+				} else {
+					//later courses in the batch are checked against this one
+					names.add(c.getName());
+					scheduleConflicts.add(c);
+					added[i] = c;
+					continue;
+				}
+				valid = false;
+			}
+			
+			boolean[] claimed = new boolean[courses.length];
+			for(int i = 0; valid && i < courses.length; i++) {
+				claimed[i] = seats.claim(added[i].getName(), added[i].getSection());
+				if(!claimed[i]) {
+					results[i] = BatchStatus.FULL;
+				}
+			}
+			for(int i = 0; valid && i < courses.length; i++) {
+				valid = claimed[i];
+			}
+			
+			ArrayList<Course> newSchedule = new ArrayList<Course>(this.schedule);
+			for(int i = 0; i < courses.length; i++) {
+				if(added[i] == null) {
+					continue;
+				}
+				if(valid) {
+					newSchedule.add(added[i]);
+					cancelWaitlists(added[i].getName());
+					results[i] = BatchStatus.ADDED;
+				} else {
+					scheduleConflicts.remove(added[i]);
+					if(claimed[i]) {
+						seats.release(added[i].getName(), added[i].getSection());
+					}
+					if(results[i] == null) {
+						results[i] = BatchStatus.NOT_APPLIED;
+					}
+				}
+			}
+			if(valid && courses.length > 0) {
+				this.schedule = newSchedule;
+				modificationCount++;
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Removes every course in the batch from the student schedule, or
+	 * none of them. Each entry of the batch is a name and section. If
+	 * every course is in the schedule, they are all removed in one change
+	 * to the schedule and their seats are released; otherwise nothing
+	 * changes. A course listed twice is not in the schedule the second
+	 * time. No exceptions are thrown for courses that can't be removed.
+	 * 
+	 * @param courses 
+	 * 			The name and section of each course to remove
+	 * @return the result for each entry of the batch, REMOVED for every
+	 * 			entry if the batch was applied
+	 */
+	public BatchStatus[] removeCourses(String[][] courses) {
+		if(courses == null) {
+			return new BatchStatus[0];
+		}
+		BatchStatus[] results = new BatchStatus[courses.length];
+		synchronized(lock) {
+			ArrayList<Course> newSchedule = new ArrayList<Course>(this.schedule);
+			Course[] removed = new Course[courses.length];
+			boolean valid = true;
+			for(int i = 0; i < courses.length; i++) {
+				if(!isPair(courses[i])) {
+					results[i] = BatchStatus.INVALID;
+					valid = false;
+					continue;
+				}
+				Course c = this.getCourseFromCatalog(courses[i][0], courses[i][1]);
+				if(c == null || !newSchedule.remove(c)) {
+					results[i] = BatchStatus.NOT_SCHEDULED;
+					valid = false;
+				} else {
+					removed[i] = c;
+				}
+			}
+			
+			for(int i = 0; i < courses.length; i++) {
+				if(removed[i] == null) {
+					continue;
+				}
+				if(valid) {
+					scheduleConflicts.remove(removed[i]);
+					seats.release(removed[i].getName(), removed[i].getSection());
+					results[i] = BatchStatus.REMOVED;
+				} else {
+					results[i] = BatchStatus.NOT_APPLIED;
+				}
+			}
+			if(valid && courses.length > 0) {
+				this.schedule = newSchedule;
+				modificationCount++;
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Returns true if the batch entry is a name and section.
+	 * 
+	 * @param entry 
+	 * 			The batch entry
+	 * @return true if the entry has a non-null name and section
+	 */
+	private static boolean isPair(String[] entry) {
+		return entry != null && entry.length == 2 && entry[0] != null && entry[1] != null;
+	}
+
+	/**
+	 * Resets the schedule by removing all elements, releasing their
+	 * seats, and taking the student off every waitlist.
 	 */
 	public void resetSchedule() {
-		schedule.removeAll(schedule);
-		this.setTitle("My Schedule");
+		synchronized(lock) {
+			for(int i = 0; i < schedule.size(); i++) {
+				seats.release(schedule.get(i).getName(), schedule.get(i).getSection());
+			}
+			schedule = new ArrayList<Course>();
+			scheduleConflicts.clear();
+			for(SeatTable.WaitlistEntry entry : waitlists.values()) {
+				entry.cancel();
+			}
+			waitlists.clear();
+			modificationCount++;
+			this.setTitle("My Schedule");
+		}
+	}
+
+	/**
+	 * Read-only view of a catalog, in the same form as getCourseCatalog().
+	 * 
+	 * @author Sanjana Cheerla
+	 */
+	private static class CatalogView implements CourseTableView {
+		
+		/** The catalog the view shows */
+		private final CourseCatalog catalog;
+		
+		/**
+		 * Constructs a view of the given catalog.
+		 * 
+		 * @param catalog 
+		 * 			The catalog to show
+		 */
+		CatalogView(CourseCatalog catalog) {
+			this.catalog = catalog;
+		}
+
+		/**
+		 * Returns the number of courses in the catalog.
+		 * 
+		 * @return the number of rows
+		 */
+		@Override
+		public int getRowCount() {
+			return catalog.size();
+		}
+
+		/**
+		 * Returns the number of columns in the view.
+		 * 
+		 * @return the number of columns
+		 */
+		@Override
+		public int getColumnCount() {
+			return SCHEDULE_COURSE_INDEX;
+		}
+
+		/**
+		 * Returns the name, section or title of the course in the
+		 * given row of the catalog.
+		 * 
+		 * @param row 
+		 * 			Row of the course
+		 * @param col 
+		 * 			Column of the field
+		 * @return the value of the field
+		 * @throws IndexOutOfBoundsException 
+		 * 			If the row or column is not in the table
+		 */
+		@Override
+		public String getValueAt(int row, int col) {
+			switch(col) {
+			case NAME_COLUMN:
+				return catalog.getName(row);
+			case SECTION_COLUMN:
+				return catalog.getSection(row);
+			case TITLE_COLUMN:
+				return catalog.getTitle(row);
+			default:
+				throw new IndexOutOfBoundsException("Column " + col + " is not in the table");
+			}
+		}
+	}
+
+	/**
+	 * Read-only view of a schedule snapshot, in the same form as
+	 * getScheduledCourses() or getFullScheduledCourses().
+	 * 
+	 * @author Sanjana Cheerla
+	 */
+	private static class ScheduleView implements CourseTableView {
+		
+		/** The schedule snapshot the view shows, which is never changed */
+		private final ArrayList<Course> schedule;
+		
+		/** Number of columns in the view */
+		private final int columns;
+		
+		/**
+		 * Constructs a view of the given schedule snapshot with the given
+		 * number of columns.
+		 * 
+		 * @param schedule 
+		 * 			The schedule snapshot to show
+		 * @param columns 
+		 * 			SCHEDULE_COURSE_INDEX or FULL_SCHEDULE_COURSE_INDEX
+		 */
+		ScheduleView(ArrayList<Course> schedule, int columns) {
+			this.schedule = schedule;
+			this.columns = columns;
+		}
+
+		/**
+		 * Returns the number of courses in the schedule.
+		 * 
+		 * @return the number of rows
+		 */
+		@Override
+		public int getRowCount() {
+			return schedule.size();
+		}
+
+		/**
+		 * Returns the number of columns in the view.
+		 * 
+		 * @return the number of columns
+		 */
+		@Override
+		public int getColumnCount() {
+			return columns;
+		}
+
+		/**
+		 * Returns a field of the course in the given row of the schedule.
+		 * 
+		 * @param row 
+		 * 			Row of the course
+		 * @param col 
+		 * 			Column of the field
+		 * @return the value of the field
+		 * @throws IndexOutOfBoundsException 
+		 * 			If the row or column is not in the table
+		 */
+		@Override
+		public String getValueAt(int row, int col) {
+			if(col < 0 || col >= columns) {
+				throw new IndexOutOfBoundsException("Column " + col + " is not in the table");
+			}
+			Course c = schedule.get(row);
+			switch(col) {
+			case NAME_COLUMN:
+				return c.getName();
+			case SECTION_COLUMN:
+				return c.getSection();
+			case TITLE_COLUMN:
+				return c.getTitle();
+			case CREDITS_COLUMN:
+				return Integer.toString(c.getCredits());
+			case INSTRUCTOR_COLUMN:
+				return c.getInstructorId();
+			case MEETING_COLUMN:
+				return c.getMeetingString();
+			default:
+				throw new IndexOutOfBoundsException("Column " + col + " is not in the table");
+			}
+		}
 	}
 
 }
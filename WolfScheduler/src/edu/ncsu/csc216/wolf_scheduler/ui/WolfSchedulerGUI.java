@@ -29,6 +29,7 @@ import javax.swing.event.ListSelectionListener;
 import javax.swing.table.AbstractTableModel;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.CourseTableView;
 import edu.ncsu.csc216.wolf_scheduler.scheduler.WolfScheduler;
 
 /**
@@ -416,8 +417,10 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 			private static final long serialVersionUID = 1L;
 			/** Column names for the table */
 			private String [] columnNames = {"Name", "Section", "Title"};
-			/** Data stored in the table */
-			private Object [][] data;
+			/** View of the scheduler's courses shown in the table */
+			private CourseTableView data;
+			/** Modification count of the catalog or schedule when the table was last updated */
+			private int modificationCount = -1;
 			/** Boolean flag if the model applies to the catalog or schedule */
 			private boolean catalog;
 			
@@ -445,7 +448,7 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 			public int getRowCount() {
 				if (data == null) 
 					return 0;
-				return data.length;
+				return data.getRowCount();
 			}
 			
 			/**
@@ -463,28 +466,26 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 			public Object getValueAt(int row, int col) {
 				if (data == null)
 					return null;
-				return data[row][col];
-			}
-			
-			/**
-			 * Sets the given value to the given {row, col} location.
-			 * @param value Object to modify in the data.
-			 * @param row location to modify the data.
-			 * @param column location to modify the data.
-			 */
-			public void setValueAt(Object value, int row, int col) {
-				data[row][col] = value;
-				fireTableCellUpdated(row, col);
+				return data.getValueAt(row, col);
 			}
 			
 			/**
 			 * Updates the given model with {@link Course} information from the {@link WolfScheduler}.
+			 * The table reads its cells from a view of the scheduler, which is only replaced
+			 * and refreshed when the catalog or schedule has changed since the last update.
+			 * The count is read before the view, so a change made in between is picked up
+			 * by the next update.
 			 */
 			private void updateData() {
-				if (catalog) {
-					data = scheduler.getCourseCatalog();
-				} else {
-					data = scheduler.getScheduledCourses();
+				int count = catalog ? scheduler.getCatalogModificationCount() : scheduler.getModificationCount();
+				if (count != modificationCount) {
+					if (catalog) {
+						data = scheduler.getCourseCatalogView();
+					} else {
+						data = scheduler.getScheduledCoursesView();
+					}
+					modificationCount = count;
+					fireTableDataChanged();
 				}
 			}
 		}
@@ -600,8 +601,10 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 			private static final long serialVersionUID = 1L;
 			/** Column names for the table */
 			private String [] columnNames = {"Name", "Section", "Title", "Credits", "Instructor", "Meeting Time"};
-			/** Data stored in the table */
-			private Object [][] data;
+			/** View of the scheduler's courses shown in the table */
+			private CourseTableView data;
+			/** Modification count of the scheduler when the table was last updated */
+			private int modificationCount = -1;
 			
 			/**
 			 * Constructs the {@link CourseTableModel} by requesting the latest information
@@ -626,7 +629,7 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 			public int getRowCount() {
 				if (data == null) 
 					return 0;
-				return data.length;
+				return data.getRowCount();
 			}
 			
 			/**
@@ -644,25 +647,22 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 			public Object getValueAt(int row, int col) {
 				if (data == null)
 					return null;
-				return data[row][col];
-			}
-			
-			/**
-			 * Sets the given value to the given {row, col} location.
-			 * @param value Object to modify in the data.
-			 * @param row location to modify the data.
-			 * @param column location to modify the data.
-			 */
-			public void setValueAt(Object value, int row, int col) {
-				data[row][col] = value;
-				fireTableCellUpdated(row, col);
+				return data.getValueAt(row, col);
 			}
 			
 			/**
 			 * Updates the given model with {@link Course} information from the {@link WolfScheduler}.
+			 * The table reads its cells from a view of the scheduler, which is only replaced
+			 * and refreshed when the schedule has changed since the last update. The count is
+			 * read before the view, so a change made in between is picked up by the next update.
 			 */
 			private void updateData() {
-				data = scheduler.getFullScheduledCourses();
+				int count = scheduler.getModificationCount();
+				if (count != modificationCount) {
+					data = scheduler.getFullScheduledCoursesView();
+					modificationCount = count;
+					fireTableDataChanged();
+				}
 			}
 		}
 		
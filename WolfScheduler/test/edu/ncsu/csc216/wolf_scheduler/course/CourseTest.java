@@ -458,6 +458,53 @@ public class CourseTest {
 		assertEquals(END_TIME, c.getEndTime());
 	}
 
+	/**
+	 * Tests that getMeetingDaysMask() has the bit of each meeting day.
+	 */
+	@Test
+	public void testGetMeetingDaysMask() {
+		String[] days = {"M", "T", "W", "H", "F"};
+		int[] bits = {Course.MONDAY, Course.TUESDAY, Course.WEDNESDAY, Course.THURSDAY, Course.FRIDAY};
+		for (int i = 0; i < days.length; i++) {
+			Course c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, days[i], START_TIME, END_TIME);
+			assertEquals(bits[i], c.getMeetingDaysMask());
+		}
+
+		Course c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "MTWHF", START_TIME, END_TIME);
+		assertEquals(Course.MONDAY | Course.TUESDAY | Course.WEDNESDAY | Course.THURSDAY | Course.FRIDAY,
+				c.getMeetingDaysMask());
+
+		//Order and repeated days do not change the mask
+		c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "FWM", START_TIME, END_TIME);
+		assertEquals(Course.MONDAY | Course.WEDNESDAY | Course.FRIDAY, c.getMeetingDaysMask());
+		c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "TTH", START_TIME, END_TIME);
+		assertEquals(Course.TUESDAY | Course.THURSDAY, c.getMeetingDaysMask());
+
+		//Arranged courses only have the ARRANGED bit
+		c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "A");
+		assertEquals(Course.ARRANGED, c.getMeetingDaysMask());
+
+		//Setting the meeting days changes the mask
+		c.setMeetingDays("MW");
+		assertEquals(Course.MONDAY | Course.WEDNESDAY, c.getMeetingDaysMask());
+		c.setMeetingDays("A");
+		assertEquals(Course.ARRANGED, c.getMeetingDaysMask());
+		c.setMeetingDays("HF");
+		assertEquals(Course.THURSDAY | Course.FRIDAY, c.getMeetingDaysMask());
+
+		//Meeting days that are not valid leave the mask as it was
+		String[] invalid = {"MWS", "MA", "AM", "m", "S"};
+		for (String meetingDays : invalid) {
+			try {
+				c.setMeetingDays(meetingDays);
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals("HF", c.getMeetingDays());
+				assertEquals(Course.THURSDAY | Course.FRIDAY, c.getMeetingDaysMask());
+			}
+		}
+	}
+
 	/**
 	 * Tests that the course times are set correctly.
 	 */
@@ -681,6 +728,120 @@ public class CourseTest {
 		assertNotEquals(c1.hashCode(), c9.hashCode());
 	}
 
+	/**
+	 * Tests that the cached hashCode, meeting String and record follow
+	 * each change to the Course, so hashCode stays consistent with equals.
+	 */
+	@Test
+	public void testHashCodeAfterChange() {
+		Course c1 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
+		Course c2 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "TH", 830, 945);
+
+		//Cache the hash code, meeting String and record of c1 before changing it
+		int hash = c1.hashCode();
+		assertEquals("MW 1:30PM-2:45PM", c1.getMeetingString());
+		assertEquals("CSC216,Programming Concepts - Java,001,4,sesmith5,MW,1330,1445", c1.toString());
+
+		c1.setMeetingDays("TH");
+		assertFalse(c1.equals(c2));
+		c1.setCourseTime(830, 945);
+		assertTrue(c1.equals(c2));
+		assertEquals(c2.hashCode(), c1.hashCode());
+		assertNotEquals(hash, c1.hashCode());
+		assertEquals("TH 8:30AM-9:45AM", c1.getMeetingString());
+		assertEquals("CSC216,Programming Concepts - Java,001,4,sesmith5,TH,830,945", c1.toString());
+
+		//Each setter clears the cached hash code
+		String[] titles = {"Different", TITLE};
+		for (String title : titles) {
+			c1.setTitle(title);
+			assertEquals(title.equals(TITLE), c1.equals(c2));
+			assertEquals(title.equals(TITLE), c1.hashCode() == c2.hashCode());
+		}
+		c1.setSection("002");
+		assertNotEquals(c2.hashCode(), c1.hashCode());
+		c1.setSection(SECTION);
+		c1.setCredits(3);
+		assertNotEquals(c2.hashCode(), c1.hashCode());
+		c1.setCredits(CREDITS);
+		c1.setInstructorId("jtking");
+		assertNotEquals(c2.hashCode(), c1.hashCode());
+		c1.setInstructorId(INSTRUCTOR_ID);
+		assertTrue(c1.equals(c2));
+		assertEquals(c2.hashCode(), c1.hashCode());
+	}
+
+	/**
+	 * Tests that a frozen Course can't be changed, and keeps its values.
+	 */
+	@Test
+	public void testFreeze() {
+		Course c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
+		assertFalse(c.isFrozen());
+		c.setTitle("Different");
+		c.setTitle(TITLE);
+		int hash = c.hashCode();
+
+		c.freeze();
+		assertTrue(c.isFrozen());
+
+		try {
+			c.setTitle("Different");
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Course is frozen", e.getMessage());
+		}
+		try {
+			c.setSection("002");
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Course is frozen", e.getMessage());
+		}
+		try {
+			c.setCredits(3);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Course is frozen", e.getMessage());
+		}
+		try {
+			c.setInstructorId("jtking");
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Course is frozen", e.getMessage());
+		}
+		try {
+			c.setMeetingDays("TH");
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Course is frozen", e.getMessage());
+		}
+		try {
+			c.setCourseTime(830, 945);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Course is frozen", e.getMessage());
+		}
+
+		//Setters that would throw for a bad value still refuse first for being frozen
+		try {
+			c.setCredits(0);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Course is frozen", e.getMessage());
+		}
+
+		//Nothing changed
+		assertEquals(TITLE, c.getTitle());
+		assertEquals(SECTION, c.getSection());
+		assertEquals(CREDITS, c.getCredits());
+		assertEquals(INSTRUCTOR_ID, c.getInstructorId());
+		assertEquals(MEETING_DAYS, c.getMeetingDays());
+		assertEquals(START_TIME, c.getStartTime());
+		assertEquals(END_TIME, c.getEndTime());
+		assertEquals(hash, c.hashCode());
+		assertTrue(c.equals(new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME)));
+	}
+
 	/**
 	 * Tests that toString returns the correct comma-separated value.
 	 */
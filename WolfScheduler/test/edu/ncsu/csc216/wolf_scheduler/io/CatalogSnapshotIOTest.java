@@ -0,0 +1,132 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CatalogSnapshotIO.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CatalogSnapshotIOTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/** Offset of the String count in a snapshot, after the magic number, version, length and checksum */
+	private static final int STRING_COUNT = 24;
+
+	/** Directory holding the snapshot written by each test */
+	private Path directory;
+
+	/** Snapshot written by each test */
+	private Path snapshot;
+
+	/**
+	 * Makes a directory for the snapshot.
+	 */
+	@Before
+	public void setUp() throws Exception {
+		directory = Files.createTempDirectory("snapshot");
+		snapshot = directory.resolve("course_records.snapshot");
+	}
+
+	/**
+	 * Deletes the snapshot and its directory.
+	 */
+	@After
+	public void tearDown() throws Exception {
+		Files.deleteIfExists(snapshot);
+		Files.deleteIfExists(directory);
+	}
+
+	/**
+	 * Tests that a snapshot is written and read back with the same Courses.
+	 */
+	@Test
+	public void testReadCourseRecords() throws IOException {
+		ArrayList<Course> expected = CourseRecordIO.readCourseRecords(validTestFile);
+
+		//No snapshot yet, so the records are parsed and a snapshot is written
+		assertEquals(expected, CatalogSnapshotIO.readCourseRecords(validTestFile, snapshot.toString()));
+		assertTrue(CatalogSnapshotIO.isSnapshotCurrent(snapshot.toString(), validTestFile));
+		assertEquals(expected, CatalogSnapshotIO.readCatalogSnapshot(snapshot.toString(), validTestFile));
+
+		//Only the snapshot is left in the directory
+		assertArrayEquals(new String[] {snapshot.getFileName().toString()}, directory.toFile().list());
+	}
+
+	/**
+	 * Tests that the records are still read when the snapshot can't be
+	 * written.
+	 */
+	@Test
+	public void testReadCourseRecordsSnapshotNotWritten() throws IOException {
+		ArrayList<Course> expected = CourseRecordIO.readCourseRecords(validTestFile);
+		String missing = directory.resolve("missing").resolve("course_records.snapshot").toString();
+
+		assertEquals(expected, CatalogSnapshotIO.readCourseRecords(validTestFile, missing));
+		assertFalse(CatalogSnapshotIO.isSnapshotCurrent(missing, validTestFile));
+		try {
+			CatalogSnapshotIO.writeCatalogSnapshot(missing, validTestFile, expected);
+			fail();
+		} catch (IOException e) {
+			//the directory does not exist
+		}
+	}
+
+	/**
+	 * Tests that damaged snapshots are rejected and replaced with a new
+	 * snapshot parsed from the records file.
+	 */
+	@Test
+	public void testReadCorruptSnapshot() throws IOException {
+		ArrayList<Course> expected = CourseRecordIO.readCourseRecords(validTestFile);
+		CatalogSnapshotIO.writeCatalogSnapshot(snapshot.toString(), validTestFile, expected);
+		byte[] valid = Files.readAllBytes(snapshot);
+
+		//Negative, too large, and truncated String counts
+		for (int count : new int[] {-1, Integer.MIN_VALUE, Integer.MAX_VALUE, valid.length}) {
+			byte[] corrupt = valid.clone();
+			ByteBuffer.wrap(corrupt).putInt(STRING_COUNT, count);
+			checkCorruptSnapshot(corrupt, expected, valid);
+		}
+
+		//Extra bytes after the last Course
+		checkCorruptSnapshot(Arrays.copyOf(valid, valid.length + 1), expected, valid);
+
+		//Snapshot cut off part way through
+		checkCorruptSnapshot(Arrays.copyOf(valid, valid.length / 2), expected, valid);
+	}
+
+	/**
+	 * Helper method to check that a damaged snapshot is rejected, and that
+	 * the records file is parsed and a valid snapshot written in its place.
+	 * @param corrupt the damaged snapshot
+	 * @param expected the Courses in the records file
+	 * @param valid the valid snapshot of the records file
+	 */
+	private void checkCorruptSnapshot(byte[] corrupt, ArrayList<Course> expected, byte[] valid) throws IOException {
+		Files.write(snapshot, corrupt);
+		try {
+			CatalogSnapshotIO.readCatalogSnapshot(snapshot.toString(), validTestFile);
+			fail();
+		} catch (IOException e) {
+			assertEquals("Catalog snapshot is not valid", e.getMessage());
+		}
+		assertEquals(expected, CatalogSnapshotIO.readCourseRecords(validTestFile, snapshot.toString()));
+		assertArrayEquals(valid, Files.readAllBytes(snapshot));
+	}
+}
@@ -5,11 +5,22 @@ import static org.junit.Assert.*;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -89,6 +100,184 @@ public class CourseRecordIOTest {
 		}
 	}
 	
+	/**
+	 * Tests that numbers with leading zeros are read by their value, for
+	 * readCourseRecords() and readCourseRecordsMapped().
+	 */
+	@Test
+	public void testReadCourseRecordsLeadingZeros() {
+		Path catalogPath = null;
+		try {
+			catalogPath = Files.createTempFile("leading_zeros", ".txt");
+			ArrayList<String> lines = new ArrayList<String>();
+			lines.add("CSC216,Programming Concepts - Java,001,0000000004,sesmith5,TH,00000000000000001330,00001445");
+			lines.add("CSC216,Programming Concepts - Java,002,-0000000004,jtking,MW,1330,1445");
+			lines.add("CSC226,Discrete Mathematics for Computer Scientists,001,3,tmbarnes,MWF,0000,00");
+			Files.write(catalogPath, lines);
+
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(catalogPath.toString());
+			assertEquals(2, courses.size());
+			assertEquals(validCourse4, courses.get(0).toString());
+			assertEquals("CSC226,Discrete Mathematics for Computer Scientists,001,3,tmbarnes,MWF,0,0",
+					courses.get(1).toString());
+			assertEquals(courses, CourseRecordIO.readCourseRecordsMapped(catalogPath.toString()));
+		} catch (IOException e) {
+			fail("Unexpected error reading " + catalogPath);
+		} finally {
+			try {
+				if (catalogPath != null) {
+					Files.deleteIfExists(catalogPath);
+				}
+			} catch (IOException e) {
+				fail("Unable to delete " + catalogPath);
+			}
+		}
+	}
+	
+	/**
+	 * Tests that readCourseRecordsParallel() reads the same Courses as
+	 * readCourseRecords() from each course records file.
+	 */
+	@Test
+	public void testReadCourseRecordsParallel() {
+		String[] files = {validTestFile, invalidTestFile, "test-files/starter_course_records.txt",
+				"test-files/expected_course_records.txt"};
+		for (String file : files) {
+			try {
+				assertEquals(CourseRecordIO.readCourseRecords(file), CourseRecordIO.readCourseRecordsParallel(file));
+			} catch (IOException e) {
+				fail("Unexpected error reading " + file);
+			}
+		}
+	}
+
+	/**
+	 * Tests that readCourseRecordsParallel() reads the same Courses as
+	 * readCourseRecords() from a catalog large enough to be split into
+	 * chunks, where invalid lines, duplicates and both kinds of line
+	 * ending fall on every side of the chunk boundaries.
+	 */
+	@Test
+	public void testReadCourseRecordsParallelChunks() {
+		Path catalogPath = null;
+		try {
+			catalogPath = Files.createTempFile("parallel", ".txt");
+			StringBuilder records = new StringBuilder();
+			for (int i = 0; i < 20000; i++) {
+				String name = "CSC" + (100 + i / 1000);
+				String section = String.format("%03d", i % 1000);
+				records.append(name).append(",Programming Concepts - Java,").append(section)
+						.append(",4,sesmith5,MW,1330,1445").append(i % 2 == 0 ? "\n" : "\r\n");
+				if (i % 3 == 0) {
+					records.append(name).append(",Programming Concepts - Java,").append(section)
+							.append(",4,sesmith5,MW,1445,1330\n");
+				}
+				if (i % 5 == 0) {
+					//duplicate of a Course that is usually in an earlier chunk
+					int first = i / 2;
+					records.append("CSC" + (100 + first / 1000)).append(",Programming Concepts - Java,")
+							.append(String.format("%03d", first % 1000)).append(",3,jtking,TH,910,1100\r\n");
+				}
+			}
+			//last line without a line ending
+			records.append("CSC999,Programming Concepts - Java,001,4,jep,A");
+			Files.write(catalogPath, records.toString().getBytes());
+
+			ArrayList<Course> expected = CourseRecordIO.readCourseRecords(catalogPath.toString());
+			assertEquals(20001, expected.size());
+			assertEquals(expected, CourseRecordIO.readCourseRecordsParallel(catalogPath.toString()));
+			for (Course c : CourseRecordIO.readCourseRecordsParallel(catalogPath.toString())) {
+				assertNotEquals("jtking", c.getInstructorId());
+			}
+		} catch (IOException e) {
+			fail("Unexpected error reading " + catalogPath);
+		} finally {
+			try {
+				if (catalogPath != null) {
+					Files.deleteIfExists(catalogPath);
+				}
+			} catch (IOException e) {
+				fail("Unable to delete " + catalogPath);
+			}
+		}
+	}
+
+	/**
+	 * Tests streamCourseRecords() with and without removing duplicates.
+	 */
+	@Test
+	public void testStreamCourseRecords() {
+		try {
+			try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(validTestFile, true)) {
+				assertEquals(CourseRecordIO.readCourseRecords(validTestFile), courses.collect(Collectors.toList()));
+			}
+
+			//The second CSC116-002 is kept when duplicates are not removed
+			try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(validTestFile, false)) {
+				List<Course> list = courses.collect(Collectors.toList());
+				assertEquals(9, list.size());
+				assertEquals(validCourse2, list.get(1).toString());
+				assertEquals("CSC116,Intro to Programming - Java,002,3,jtking,TH,910,1100", list.get(3).toString());
+				assertEquals(validCourse4, list.get(4).toString());
+			}
+
+			try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(invalidTestFile, false)) {
+				assertEquals(0, courses.count());
+			}
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+
+		try {
+			CourseRecordIO.streamCourseRecords("test-files/no_such_file.txt", true);
+			fail();
+		} catch (FileNotFoundException e) {
+			//the file does not exist
+		}
+	}
+
+	/**
+	 * Tests that streamCourseRecords() only reads lines as Courses are
+	 * needed, and that closing the Stream closes the file.
+	 */
+	@Test
+	public void testStreamCourseRecordsLazy() {
+		Path catalogPath = null;
+		try {
+			catalogPath = Files.createTempFile("stream", ".txt");
+			Files.write(catalogPath, Collections.singletonList(validCourse1));
+
+			Stream<Course> courses = CourseRecordIO.streamCourseRecords(catalogPath.toString(), true);
+			Iterator<Course> iterator = courses.iterator();
+			assertEquals(validCourse1, iterator.next().toString());
+
+			//Lines added after the Stream is made are read when they are needed
+			Files.write(catalogPath, Arrays.asList(validCourse4, validCourse1), StandardOpenOption.APPEND);
+			assertTrue(iterator.hasNext());
+			assertEquals(validCourse4, iterator.next().toString());
+
+			//Closing the Stream closes the file, so no more lines can be read
+			Files.write(catalogPath, Collections.singletonList(validCourse7), StandardOpenOption.APPEND);
+			courses.close();
+			try {
+				iterator.hasNext();
+				fail();
+			} catch (UncheckedIOException e) {
+				//the file is closed
+			}
+		} catch (IOException e) {
+			fail("Unexpected error reading " + catalogPath);
+		} finally {
+			try {
+				if (catalogPath != null) {
+					Files.deleteIfExists(catalogPath);
+				}
+			} catch (IOException e) {
+				fail("Unable to delete " + catalogPath);
+			}
+		}
+	}
+
 	/**
 	 * Tests writeCourseRecords()
 	 */
@@ -108,6 +297,118 @@ public class CourseRecordIOTest {
 		checkFiles("test-files/expected_course_records.txt", "test-files/actual_course_records.txt");
 	}
 
+	/**
+	 * Tests writeCourseRecordsAtomically() writes every record, leaves no
+	 * temporary file behind, and gives the file the same permissions as
+	 * writeCourseRecords() would.
+	 */
+	@Test
+	public void testWriteCourseRecordsAtomically() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		courses.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "MW", 1330, 1445));
+		courses.add(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"));
+
+		Path directory = null;
+		try {
+			directory = Files.createTempDirectory("atomic");
+			Path file = directory.resolve("actual_course_records.txt");
+			Path plainFile = directory.resolve("plain_course_records.txt");
+			boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+
+			//A new file has the contents and permissions of a plain write
+			CourseRecordIO.writeCourseRecordsAtomically(file.toString(), courses, false);
+			CourseRecordIO.writeCourseRecords(plainFile.toString(), courses);
+			checkFiles("test-files/expected_course_records.txt", file.toString());
+			assertArrayEquals(Files.readAllBytes(plainFile), Files.readAllBytes(file));
+			if (posix) {
+				assertEquals(Files.getPosixFilePermissions(plainFile), Files.getPosixFilePermissions(file));
+			}
+			Files.delete(plainFile);
+
+			//An existing file keeps its permissions when it is replaced
+			if (posix) {
+				Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-r-----"));
+			}
+			courses.remove(0);
+			CourseRecordIO.writeCourseRecordsAtomically(file.toString(), courses, true);
+			assertEquals(2, CourseRecordIO.readCourseRecords(file.toString()).size());
+			if (posix) {
+				assertEquals(PosixFilePermissions.fromString("rw-r-----"), Files.getPosixFilePermissions(file));
+			}
+
+			//Only the file is left in the directory
+			assertArrayEquals(new String[] {file.getFileName().toString()}, directory.toFile().list());
+			Files.delete(file);
+		} catch (IOException e) {
+			fail("Cannot write to course records file");
+		} finally {
+			try {
+				if (directory != null) {
+					for (File f : directory.toFile().listFiles()) {
+						Files.delete(f.toPath());
+					}
+					Files.delete(directory);
+				}
+			} catch (IOException e) {
+				fail("Unable to delete " + directory);
+			}
+		}
+	}
+
+	/**
+	 * Tests that the String fields repeated across the records of a large
+	 * catalog are shared, for readCourseRecords() and
+	 * readCourseRecordsMapped(), so the catalog only retains one String
+	 * for each distinct value.
+	 */
+	@Test
+	public void testReadCourseRecordsSharesStrings() {
+		Path catalogPath = null;
+		try {
+			catalogPath = Files.createTempFile("footprint", ".txt");
+			ArrayList<String> lines = new ArrayList<String>();
+			for (int i = 0; i < 1000; i++) {
+				String section = String.format("%03d", i);
+				lines.add("CSC116,Intro to Programming - Java," + section + ",3,jdyoung2,MW,910,1100");
+				lines.add("CSC216,Programming Concepts - Java," + section + ",4,sesmith5,TH,1330,1445");
+			}
+			Files.write(catalogPath, lines);
+
+			checkSharedStrings(CourseRecordIO.readCourseRecords(catalogPath.toString()));
+			checkSharedStrings(CourseRecordIO.readCourseRecordsMapped(catalogPath.toString()));
+		} catch (IOException e) {
+			fail("Unexpected error reading " + catalogPath);
+		} finally {
+			try {
+				if (catalogPath != null) {
+					Files.deleteIfExists(catalogPath);
+				}
+			} catch (IOException e) {
+				fail("Unable to delete " + catalogPath);
+			}
+		}
+	}
+
+	/**
+	 * Helper method to check that the 2000 Courses of the large catalog
+	 * in testReadCourseRecordsSharesStrings() hold one String object for
+	 * each distinct name, title, instructorId and meeting days value.
+	 * @param courses Courses read from the catalog
+	 */
+	private void checkSharedStrings(ArrayList<Course> courses) {
+		assertEquals(2000, courses.size());
+		Set<String> strings = Collections.newSetFromMap(new IdentityHashMap<String, Boolean>());
+		for (Course c : courses) {
+			strings.add(c.getName());
+			strings.add(c.getTitle());
+			strings.add(c.getInstructorId());
+			strings.add(c.getMeetingDays());
+		}
+		//CSC116, CSC216, two titles, two instructors, MW and TH
+		assertEquals(8, strings.size());
+	}
+
 	/**
 	 * Helper method to compare two files for the same contents
 	 * @param expFile expected output
@@ -0,0 +1,90 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Tests StringPool.
+ *
+ * @author Sanjana Cheerla
+ */
+public class StringPoolTest {
+
+	/**
+	 * Tests that intern() returns one String for each value.
+	 */
+	@Test
+	public void testIntern() {
+		StringPool pool = new StringPool();
+		String line1 = "CSC216,Programming Concepts - Java,001";
+		String line2 = "CSC216,Programming Concepts - Java,002";
+
+		String title = pool.intern(line1, 7, 34);
+		assertEquals("Programming Concepts - Java", title);
+		assertSame(title, pool.intern(line2, 7, 34));
+		assertSame(pool.intern(line1, 0, 6), pool.intern(line2, 0, 6));
+
+		//Different values are different Strings
+		assertEquals("001", pool.intern(line1, 35, 38));
+		assertEquals("002", pool.intern(line2, 35, 38));
+		assertNotSame(pool.intern(line1, 35, 38), pool.intern(line2, 35, 38));
+
+		//Empty value
+		assertEquals("", pool.intern(line1, 0, 0));
+	}
+
+	/**
+	 * Tests that the pool keeps every value as it grows.
+	 */
+	@Test
+	public void testInternGrow() {
+		StringPool pool = new StringPool();
+		String[] values = new String[1000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = pool.intern("id" + i, 0, ("id" + i).length());
+		}
+		for (int i = 0; i < values.length; i++) {
+			assertSame(values[i], pool.intern("id" + i, 0, ("id" + i).length()));
+		}
+	}
+
+	/**
+	 * Tests that values with non-ASCII characters read from bytes are
+	 * pooled by the Strings they decode to.
+	 */
+	@Test
+	public void testInternNonAscii() {
+		StringPool pool = new StringPool();
+		byte[] bytes = "Caf\u00e9,Caf\u00e9".getBytes(StandardCharsets.UTF_8);
+		AsciiCharSequence seq = new AsciiCharSequence(ByteBuffer.wrap(bytes));
+		int comma = bytes.length / 2;
+		String expected = new String(bytes, 0, comma, Charset.defaultCharset());
+
+		String first = pool.intern(seq, 0, comma);
+		assertEquals(expected, first);
+		assertSame(first, pool.intern(seq, comma + 1, bytes.length));
+
+		//The same value from a decoded line is the same String
+		assertSame(first, pool.intern(expected + ",x", 0, expected.length()));
+	}
+
+	/**
+	 * Tests that non-ASCII values in decoded characters other than a String
+	 * are pooled as they are.
+	 */
+	@Test
+	public void testInternNonAsciiDecoded() {
+		StringPool pool = new StringPool();
+		StringBuilder line = new StringBuilder("Caf\u00e9,Caf\u00e9");
+
+		String first = pool.intern(line, 0, 4);
+		assertEquals("Caf\u00e9", first);
+		assertSame(first, pool.intern(line, 5, 9));
+		assertSame(first, pool.intern("Caf\u00e9", 0, 4));
+	}
+}
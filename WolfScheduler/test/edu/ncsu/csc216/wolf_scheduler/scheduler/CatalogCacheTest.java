@@ -0,0 +1,122 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests CatalogCache.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CatalogCacheTest {
+
+	/** Directory holding the course records files of each test */
+	private Path directory;
+
+	/**
+	 * Makes a directory for the course records files.
+	 */
+	@Before
+	public void setUp() throws Exception {
+		directory = Files.createTempDirectory("catalogs");
+	}
+
+	/**
+	 * Deletes the course records files and their directory.
+	 */
+	@After
+	public void tearDown() throws Exception {
+		String[] files = directory.toFile().list();
+		for (int i = 0; files != null && i < files.length; i++) {
+			Files.deleteIfExists(directory.resolve(files[i]));
+		}
+		if (!Files.deleteIfExists(directory)) {
+			fail("Unable to delete " + directory);
+		}
+	}
+
+	/**
+	 * Tests that a file rewritten with the same length and last modified
+	 * time is read again.
+	 */
+	@Test
+	public void testGetCatalogSameLengthAndTime() throws IOException {
+		Path records = directory.resolve("course_records.txt");
+		Files.write(records, Arrays.asList("CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1330,1445"));
+		FileTime time = Files.getLastModifiedTime(records);
+
+		CourseCatalog catalog = CatalogCache.getCatalog(records.toString());
+		assertEquals("sesmith5", catalog.getCourse(0).getInstructorId());
+		assertSame(catalog, CatalogCache.getCatalog(records.toString()));
+
+		//Same length, and the time is set back, but a different instructor
+		Files.write(records, Arrays.asList("CSC216,Programming Concepts - Java,001,4,jdyoung2,TH,1330,1445"));
+		Files.setLastModifiedTime(records, time);
+		CourseCatalog changed = CatalogCache.getCatalog(records.toString());
+		assertNotSame(catalog, changed);
+		assertEquals("jdyoung2", changed.getCourse(0).getInstructorId());
+		assertSame(changed, CatalogCache.getCatalog(records.toString()));
+	}
+
+	/**
+	 * Tests that the cache keeps at most MAX_CATALOGS catalogs, dropping
+	 * the least recently used one first.
+	 */
+	@Test
+	public void testGetCatalogBounded() throws IOException {
+		CatalogCache.clear();
+		ArrayList<String> files = new ArrayList<String>();
+		ArrayList<CourseCatalog> catalogs = new ArrayList<CourseCatalog>();
+		for (int i = 0; i < CatalogCache.MAX_CATALOGS; i++) {
+			Path records = directory.resolve("course_records" + i + ".txt");
+			Files.write(records, Arrays.asList("CSC" + (100 + i) + ",Title,001,3,sesmith5,A"));
+			files.add(records.toString());
+			catalogs.add(CatalogCache.getCatalog(records.toString()));
+		}
+		assertEquals(CatalogCache.MAX_CATALOGS, CatalogCache.size());
+
+		//The first file is used again, so the second is the least recently used
+		assertSame(catalogs.get(0), CatalogCache.getCatalog(files.get(0)));
+		Path extra = directory.resolve("course_records_extra.txt");
+		Files.write(extra, Arrays.asList("CSC999,Title,001,3,sesmith5,A"));
+		CatalogCache.getCatalog(extra.toString());
+		assertEquals(CatalogCache.MAX_CATALOGS, CatalogCache.size());
+
+		assertSame(catalogs.get(0), CatalogCache.getCatalog(files.get(0)));
+		assertSame(catalogs.get(2), CatalogCache.getCatalog(files.get(2)));
+		//The dropped catalog is read again, and its old copy still works
+		CourseCatalog reread = CatalogCache.getCatalog(files.get(1));
+		assertNotSame(catalogs.get(1), reread);
+		assertEquals(catalogs.get(1).getCourse(0), reread.getCourse(0));
+		assertEquals(CatalogCache.MAX_CATALOGS, CatalogCache.size());
+	}
+
+	/**
+	 * Tests that the seat table of a file is shared while it is used.
+	 */
+	@Test
+	public void testGetSeatTable() throws IOException {
+		Path records = directory.resolve("course_records.txt");
+		Files.write(records, Arrays.asList("CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1330,1445"));
+		Path other = directory.resolve("other_records.txt");
+		Files.write(other, Arrays.asList("CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1330,1445"));
+
+		SeatTable seats = CatalogCache.getSeatTable(records.toString());
+		assertSame(seats, CatalogCache.getSeatTable(records.toString()));
+		assertSame(seats, CatalogCache.getSeatTable(directory.resolve(".").resolve("course_records.txt").toString()));
+		assertNotSame(seats, CatalogCache.getSeatTable(other.toString()));
+
+		CatalogCache.clear();
+		assertNotSame(seats, CatalogCache.getSeatTable(records.toString()));
+	}
+}
@@ -0,0 +1,138 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CatalogIntervalIndex.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CatalogIntervalIndexTest {
+
+	/**
+	 * Helper method to make a catalog of the given Courses.
+	 * @param courses the Courses in row order
+	 * @return the catalog
+	 */
+	private static CourseCatalog catalog(Course... courses) {
+		return new ListCourseCatalog(new ArrayList<Course>(Arrays.asList(courses)));
+	}
+
+	/**
+	 * Tests that Courses overlapping on a common day conflict, and Courses
+	 * on other days or at other times do not.
+	 */
+	@Test
+	public void testGetConflictsOverlap() {
+		CatalogIntervalIndex index = new CatalogIntervalIndex(catalog(
+				new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100),
+				new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "TH", 1000, 1115),
+				new Course("CSC226", "Discrete Mathematics", "001", 3, "tmbarnes", "MWF", 1030, 1120),
+				new Course("CSC230", "C and Software Tools", "001", 3, "dbsturgi", "MW", 1200, 1315),
+				new Course("CSC316", "Data Structures", "001", 3, "jtking", "F", 800, 1700),
+				new Course("CSC326", "Software Engineering", "001", 3, "jep", "W", 1000, 1010)));
+
+		//Overlaps the end of row 0, the start of row 2, and all of row 5, on Monday or Wednesday
+		assertArrayEquals(new int[] {0, 2, 5},
+				index.getConflicts(new Course("CSC333", "Automata", "001", 3, "x", "MW", 1000, 1040)));
+		//Inside row 1 on Tuesday only
+		assertArrayEquals(new int[] {1},
+				index.getConflicts(new Course("CSC333", "Automata", "001", 3, "x", "T", 1030, 1040)));
+		//Row 2 and row 4 both meet Friday, but row 2 is only listed once
+		assertArrayEquals(new int[] {2, 4},
+				index.getConflicts(new Course("CSC333", "Automata", "001", 3, "x", "MWF", 1101, 1110)));
+		//Between Courses and on other days
+		assertArrayEquals(new int[0],
+				index.getConflicts(new Course("CSC333", "Automata", "001", 3, "x", "MW", 1130, 1150)));
+		assertArrayEquals(new int[0],
+				index.getConflicts(new Course("CSC333", "Automata", "001", 3, "x", "TH", 1130, 1700)));
+	}
+
+	/**
+	 * Tests that Courses conflict when one ends at the time the other starts.
+	 */
+	@Test
+	public void testGetConflictsTouching() {
+		Course morning = new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100);
+		Course afternoon = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "MW", 1330, 1445);
+		CatalogIntervalIndex index = new CatalogIntervalIndex(catalog(morning, afternoon));
+
+		Course startsAtEnd = new Course("CSC226", "Discrete Mathematics", "001", 3, "x", "W", 1100, 1200);
+		Course endsAtStart = new Course("CSC226", "Discrete Mathematics", "001", 3, "x", "M", 1200, 1330);
+		Course between = new Course("CSC226", "Discrete Mathematics", "001", 3, "x", "MW", 1101, 1329);
+		assertArrayEquals(new int[] {0}, index.getConflicts(startsAtEnd));
+		assertArrayEquals(new int[] {1}, index.getConflicts(endsAtStart));
+		assertArrayEquals(new int[0], index.getConflicts(between));
+	}
+
+	/**
+	 * Tests that arranged Courses never conflict, whether they are in the
+	 * catalog or searched for.
+	 */
+	@Test
+	public void testGetConflictsArranged() {
+		CatalogIntervalIndex index = new CatalogIntervalIndex(catalog(
+				new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"),
+				new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MWF", 800, 1700)));
+
+		assertArrayEquals(new int[0],
+				index.getConflicts(new Course("CSC226", "Discrete Mathematics", "601", 3, "x", "A")));
+		assertArrayEquals(new int[] {1},
+				index.getConflicts(new Course("CSC226", "Discrete Mathematics", "001", 3, "x", "F", 0, 2359)));
+	}
+
+	/**
+	 * Tests that the unavailable rows of a schedule are the conflicting
+	 * Courses and every section of a scheduled course.
+	 */
+	@Test
+	public void testGetUnavailableRows() {
+		Course arranged = new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A");
+		CatalogIntervalIndex index = new CatalogIntervalIndex(catalog(
+				new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100),
+				new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "TH", 1330, 1445),
+				new Course("CSC116", "Intro to Programming - Java", "002", 3, "spbalik", "TH", 1120, 1310),
+				new Course("CSC226", "Discrete Mathematics", "001", 3, "tmbarnes", "MWF", 935, 1025),
+				arranged,
+				new Course("CSC230", "C and Software Tools", "001", 3, "dbsturgi", "MW", 1145, 1300)));
+
+		ArrayList<Course> schedule = new ArrayList<Course>();
+		assertArrayEquals(new int[0], index.getUnavailableRows(schedule));
+
+		//The arranged section has no conflicts, but takes the other CSC216 section
+		schedule.add(arranged);
+		assertArrayEquals(new int[] {1, 4}, index.getUnavailableRows(schedule));
+
+		//CSC116-001 takes CSC116-002 and conflicts with CSC226-001
+		schedule.add(new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100));
+		assertArrayEquals(new int[] {0, 1, 2, 3, 4}, index.getUnavailableRows(schedule));
+
+		//A course not in the catalog only takes its conflicts
+		schedule.clear();
+		schedule.add(new Course("CSC316", "Data Structures", "001", 3, "jtking", "MW", 1300, 1400));
+		assertArrayEquals(new int[] {5}, index.getUnavailableRows(schedule));
+	}
+
+	/**
+	 * Tests that of() shares one index for each catalog.
+	 */
+	@Test
+	public void testOf() {
+		CourseCatalog first = catalog(
+				new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100));
+		CourseCatalog second = catalog(
+				new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100));
+
+		CatalogIntervalIndex index = CatalogIntervalIndex.of(first);
+		assertSame(index, CatalogIntervalIndex.of(first));
+		assertNotSame(index, CatalogIntervalIndex.of(second));
+		assertSame(CatalogIntervalIndex.of(second), CatalogIntervalIndex.of(second));
+	}
+}
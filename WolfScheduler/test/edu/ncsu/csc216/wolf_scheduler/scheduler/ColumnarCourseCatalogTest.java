@@ -0,0 +1,145 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Tests ColumnarCourseCatalog.
+ *
+ * @author Sanjana Cheerla
+ */
+public class ColumnarCourseCatalogTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/**
+	 * Tests that each row of the catalog has the same Course and fields as
+	 * a ListCourseCatalog of the same records.
+	 */
+	@Test
+	public void testGetCourse() throws FileNotFoundException {
+		ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile);
+		ColumnarCourseCatalog catalog = new ColumnarCourseCatalog(courses);
+		ListCourseCatalog expected = new ListCourseCatalog(courses);
+
+		assertEquals(expected.size(), catalog.size());
+		for (int row = 0; row < catalog.size(); row++) {
+			Course c = catalog.getCourse(row);
+			assertEquals(expected.getCourse(row), c);
+			assertTrue(c.isFrozen());
+			assertEquals(c.getName(), catalog.getName(row));
+			assertEquals(c.getSection(), catalog.getSection(row));
+			assertEquals(c.getTitle(), catalog.getTitle(row));
+			assertEquals(c.getMeetingDaysMask(), catalog.getMeetingDaysMask(row));
+			assertEquals(c.getStartTime(), catalog.getStartTime(row));
+			assertEquals(c.getEndTime(), catalog.getEndTime(row));
+		}
+
+		try {
+			catalog.getCourse(catalog.size());
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Row " + catalog.size() + " is not in the catalog", e.getMessage());
+		}
+		try {
+			catalog.getName(-1);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Row -1 is not in the catalog", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that Courses are found by name and section, and that only the
+	 * first Course with a name and section is kept.
+	 */
+	@Test
+	public void testIndexOf() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100));
+		courses.add(new Course("CSC116", "Intro to Programming - Java", "002", 3, "spbalik", "MW", 1120, 1310));
+		courses.add(new Course("CSC116", "Intro to Programming - Java", "002", 3, "jtking", "TH", 910, 1100));
+		courses.add(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"));
+		ColumnarCourseCatalog catalog = new ColumnarCourseCatalog(courses);
+
+		assertEquals(3, catalog.size());
+		assertEquals(0, catalog.indexOf("CSC116", "001"));
+		assertEquals(1, catalog.indexOf("CSC116", "002"));
+		assertEquals("spbalik", catalog.getCourse(1).getInstructorId());
+		assertEquals(2, catalog.indexOf("CSC216", "601"));
+		assertEquals(courses.get(3), catalog.getCourse(2));
+
+		//Known name with an unknown section, a known String that is not a name, and unknown Strings
+		assertEquals(-1, catalog.indexOf("CSC116", "003"));
+		assertEquals(-1, catalog.indexOf("CSC216", "001"));
+		assertEquals(-1, catalog.indexOf("001", "CSC116"));
+		assertEquals(-1, catalog.indexOf("CSC999", "001"));
+
+		//Empty catalog
+		ColumnarCourseCatalog empty = new ColumnarCourseCatalog(new ArrayList<Course>());
+		assertEquals(0, empty.size());
+		assertEquals(-1, empty.indexOf("CSC116", "001"));
+	}
+
+	/**
+	 * Tests that withCourses() makes a new catalog and leaves the old one
+	 * as it was.
+	 */
+	@Test
+	public void testWithCourses() throws FileNotFoundException {
+		ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile);
+		ColumnarCourseCatalog catalog = new ColumnarCourseCatalog(courses);
+		int size = catalog.size();
+
+		ArrayList<Course> changed = new ArrayList<Course>();
+		changed.add(new Course("CSC316", "Data Structures and Algorithms", "001", 3, "jtking", "MW", 830, 945));
+		changed.add(courses.get(0));
+		CourseCatalog next = catalog.withCourses(changed);
+
+		assertTrue(next instanceof ColumnarCourseCatalog);
+		assertEquals(2, next.size());
+		assertEquals(changed.get(0), next.getCourse(0));
+		assertEquals(courses.get(0), next.getCourse(1));
+		assertEquals(1, next.indexOf(courses.get(0).getName(), courses.get(0).getSection()));
+		assertEquals(-1, next.indexOf("CSC216", "601"));
+
+		assertEquals(size, catalog.size());
+		assertEquals(-1, catalog.indexOf("CSC316", "001"));
+		assertEquals(courses.get(0), catalog.getCourse(0));
+	}
+
+	/**
+	 * Tests findCourses() by credits and meeting days.
+	 */
+	@Test
+	public void testFindCourses() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100));
+		courses.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "TH", 1330, 1445));
+		courses.add(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"));
+		courses.add(new Course("CSC226", "Discrete Mathematics", "001", 3, "tmbarnes", "MWF", 935, 1025));
+		courses.add(new Course("CSC230", "C and Software Tools", "001", 3, "dbsturgi", "MW", 1145, 1300));
+		courses.add(new Course("CSC116", "Intro to Programming - Java", "002", 3, "jtking", "TH", 910, 1100));
+		ColumnarCourseCatalog catalog = new ColumnarCourseCatalog(courses);
+
+		//A days mask of 0 matches every Course, including arranged ones
+		assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5}, catalog.findCourses(0, 0));
+		assertArrayEquals(new int[] {1, 2}, catalog.findCourses(4, 0));
+		assertArrayEquals(new int[0], catalog.findCourses(5, 0));
+
+		//Courses must meet on every day in the mask
+		assertArrayEquals(new int[] {0, 3, 4}, catalog.findCourses(0, Course.WEDNESDAY));
+		assertArrayEquals(new int[] {3}, catalog.findCourses(0, Course.MONDAY | Course.FRIDAY));
+		assertArrayEquals(new int[] {1, 5}, catalog.findCourses(3, Course.TUESDAY | Course.THURSDAY));
+		assertArrayEquals(new int[] {1}, catalog.findCourses(4, Course.THURSDAY));
+		assertArrayEquals(new int[0], catalog.findCourses(0, Course.MONDAY | Course.TUESDAY));
+	}
+}
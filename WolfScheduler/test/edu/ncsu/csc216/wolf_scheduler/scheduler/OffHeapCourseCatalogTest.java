@@ -0,0 +1,160 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Tests OffHeapCourseCatalog and OffHeapStringTable.
+ *
+ * @author Sanjana Cheerla
+ */
+public class OffHeapCourseCatalogTest {
+
+	/** Course records files to read */
+	private static final String[] TEST_FILES = {"test-files/starter_course_records.txt",
+			"test-files/expected_course_records.txt", "test-files/invalid_course_records.txt"};
+
+	/**
+	 * Tests that reading each test file gives the same catalog as a
+	 * ListCourseCatalog of the Courses read by CourseRecordIO.
+	 */
+	@Test
+	public void testReadCatalog() throws FileNotFoundException {
+		for (String fileName : TEST_FILES) {
+			ListCourseCatalog expected = new ListCourseCatalog(CourseRecordIO.readCourseRecords(fileName));
+			checkCatalog(expected, OffHeapCourseCatalog.readCatalog(fileName));
+		}
+
+		try {
+			OffHeapCourseCatalog.readCatalog("test-files/nothing.txt");
+			fail();
+		} catch (FileNotFoundException e) {
+			//the file does not exist
+		}
+	}
+
+	/**
+	 * Tests a catalog with more rows and longer Strings than a new catalog
+	 * has room for, with arranged Courses and repeated sections.
+	 */
+	@Test
+	public void testReadCatalogGrow() throws IOException {
+		char[] longTitle = new char[5000];
+		Arrays.fill(longTitle, 'x');
+		ArrayList<String> lines = new ArrayList<String>();
+		for (int i = 0; i < 2500; i++) {
+			String name = "CSC" + (100 + i % 900);
+			String section = String.format("%03d", i / 900);
+			String title = i % 7 == 0 ? new String(longTitle, 0, 1000 + i) : "Title " + i % 10;
+			if (i % 5 == 0) {
+				lines.add(name + "," + title + "," + section + ",3,id" + i + ",A");
+			} else {
+				lines.add(name + "," + title + "," + section + "," + (1 + i % 5) + ",id" + i + ",MWF,"
+						+ (800 + i % 8 * 100) + "," + (850 + i % 8 * 100));
+			}
+		}
+		//Repeated name and section, only the first is kept
+		lines.add("CSC100,Different,000,3,other,TH,900,1000");
+
+		Path directory = Files.createTempDirectory("catalog");
+		Path records = directory.resolve("course_records.txt");
+		try {
+			Files.write(records, lines);
+			ListCourseCatalog expected = new ListCourseCatalog(CourseRecordIO.readCourseRecords(records.toString()));
+			OffHeapCourseCatalog catalog = OffHeapCourseCatalog.readCatalog(records.toString());
+			assertEquals(2500, catalog.size());
+			checkCatalog(expected, catalog);
+			assertEquals("id0", catalog.getCourse(catalog.indexOf("CSC100", "000")).getInstructorId());
+			assertEquals(1000 + 2492, catalog.getTitle(2492).length());
+			assertEquals("A", catalog.getCourse(2495).getMeetingDays());
+
+			//withCourses() makes a new catalog of the same kind
+			ArrayList<Course> courses = new ArrayList<Course>();
+			courses.add(catalog.getCourse(7));
+			courses.add(catalog.getCourse(5));
+			CourseCatalog next = catalog.withCourses(courses);
+			assertTrue(next instanceof OffHeapCourseCatalog);
+			checkCatalog(new ListCourseCatalog(courses), next);
+			assertEquals(2500, catalog.size());
+		} finally {
+			if (!Files.deleteIfExists(records) || !Files.deleteIfExists(directory)) {
+				fail("Unable to delete " + records);
+			}
+		}
+	}
+
+	/**
+	 * Tests that the String table keeps each distinct String once, by id,
+	 * including long, empty and non-ASCII Strings.
+	 */
+	@Test
+	public void testStringTable() {
+		OffHeapStringTable table = new OffHeapStringTable();
+		char[] chars = new char[10000];
+		Arrays.fill(chars, '\u00e9');
+		String longString = new String(chars);
+
+		assertEquals(0, table.add("CSC216"));
+		assertEquals(1, table.add(""));
+		assertEquals(2, table.add("Caf\u00e9"));
+		assertEquals(3, table.add(longString));
+		assertEquals(0, table.add("CSC216"));
+		assertEquals(4, table.size());
+
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(4 + i, table.add("id" + i));
+		}
+		assertEquals(1004, table.size());
+
+		assertEquals("CSC216", table.get(0));
+		assertEquals("", table.get(1));
+		assertEquals("Caf\u00e9", table.get(2));
+		assertEquals(longString, table.get(3));
+		assertEquals(3, table.idOf(longString));
+		assertEquals(2, table.idOf("Caf\u00e9"));
+		assertEquals(-1, table.idOf("Cafe"));
+		for (int i = 0; i < 1000; i++) {
+			assertEquals("id" + i, table.get(4 + i));
+			assertEquals(4 + i, table.idOf("id" + i));
+		}
+	}
+
+	/**
+	 * Helper method to check that a catalog has the same rows as expected.
+	 * @param expected the catalog with the expected rows
+	 * @param catalog the catalog to check
+	 */
+	private static void checkCatalog(CourseCatalog expected, CourseCatalog catalog) {
+		assertEquals(expected.size(), catalog.size());
+		for (int row = 0; row < catalog.size(); row++) {
+			Course c = catalog.getCourse(row);
+			assertEquals(expected.getCourse(row), c);
+			assertTrue(c.isFrozen());
+			assertEquals(c.getName(), catalog.getName(row));
+			assertEquals(c.getSection(), catalog.getSection(row));
+			assertEquals(c.getTitle(), catalog.getTitle(row));
+			assertEquals(c.getMeetingDaysMask(), catalog.getMeetingDaysMask(row));
+			assertEquals(c.getStartTime(), catalog.getStartTime(row));
+			assertEquals(c.getEndTime(), catalog.getEndTime(row));
+			assertEquals(row, catalog.indexOf(c.getName(), c.getSection()));
+		}
+		assertEquals(-1, catalog.indexOf("CSC999", "999"));
+		try {
+			catalog.getCourse(catalog.size());
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Row " + catalog.size() + " is not in the catalog", e.getMessage());
+		}
+	}
+}
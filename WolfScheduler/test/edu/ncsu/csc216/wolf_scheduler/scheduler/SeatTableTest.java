@@ -0,0 +1,215 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests the SeatTable class.
+ *
+ * @author Sanjana Cheerla
+ */
+public class SeatTableTest {
+
+	/** Course name */
+	private static final String NAME = "CSC216";
+	/** Course section */
+	private static final String SECTION = "001";
+
+	/**
+	 * Tests SeatTable.setCapacity() and SeatTable.getCapacity().
+	 */
+	@Test
+	public void testSetCapacity() {
+		SeatTable seats = new SeatTable();
+
+		//A section has no limit until its capacity is set
+		assertEquals(SeatTable.UNLIMITED, seats.getCapacity(NAME, SECTION));
+		assertEquals(0, seats.getEnrollment(NAME, SECTION));
+
+		seats.setCapacity(NAME, SECTION, 30);
+		assertEquals(30, seats.getCapacity(NAME, SECTION));
+		assertEquals(SeatTable.UNLIMITED, seats.getCapacity(NAME, "002"));
+
+		try {
+			seats.setCapacity(NAME, SECTION, -1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Capacity cannot be negative", e.getMessage());
+			assertEquals(30, seats.getCapacity(NAME, SECTION));
+		}
+	}
+
+	/**
+	 * Tests SeatTable.claim() and SeatTable.release() from one thread.
+	 */
+	@Test
+	public void testClaimAndRelease() {
+		SeatTable seats = new SeatTable();
+		seats.setCapacity(NAME, SECTION, 2);
+
+		assertTrue(seats.claim(NAME, SECTION));
+		assertTrue(seats.claim(NAME, SECTION));
+		assertEquals(2, seats.getEnrollment(NAME, SECTION));
+
+		//The section is full
+		assertFalse(seats.claim(NAME, SECTION));
+		assertEquals(2, seats.getEnrollment(NAME, SECTION));
+
+		//A released seat can be claimed again
+		seats.release(NAME, SECTION);
+		assertEquals(1, seats.getEnrollment(NAME, SECTION));
+		assertTrue(seats.claim(NAME, SECTION));
+		assertFalse(seats.claim(NAME, SECTION));
+
+		//Lowering the capacity keeps the students enrolled but claims fail
+		//until enough seats are released
+		seats.setCapacity(NAME, SECTION, 1);
+		assertEquals(2, seats.getEnrollment(NAME, SECTION));
+		seats.release(NAME, SECTION);
+		assertFalse(seats.claim(NAME, SECTION));
+		seats.release(NAME, SECTION);
+		assertTrue(seats.claim(NAME, SECTION));
+
+		//Releasing a section that was never used changes nothing
+		seats.release(NAME, "002");
+		assertEquals(0, seats.getEnrollment(NAME, "002"));
+	}
+
+	/**
+	 * Tests that the waitlist length and positions only count students
+	 * still on the waitlist.
+	 */
+	@Test
+	public void testWaitlist() {
+		SeatTable seats = new SeatTable();
+		//No seats, so no one is promoted
+		seats.setCapacity(NAME, SECTION, 0);
+		CourseCatalog catalog = CatalogCache.getCatalog("test-files/starter_course_records.txt");
+		assertEquals(0, seats.getWaitlistLength(NAME, SECTION));
+
+		SeatTable.WaitlistEntry first = seats.joinWaitlist(NAME, SECTION, new WolfScheduler(catalog, seats));
+		SeatTable.WaitlistEntry second = seats.joinWaitlist(NAME, SECTION, new WolfScheduler(catalog, seats));
+		SeatTable.WaitlistEntry third = seats.joinWaitlist(NAME, SECTION, new WolfScheduler(catalog, seats));
+		assertEquals(NAME, first.getName());
+		assertEquals(SECTION, first.getSection());
+		assertEquals(3, seats.getWaitlistLength(NAME, SECTION));
+		assertEquals(1, first.getPosition());
+		assertEquals(2, second.getPosition());
+		assertEquals(3, third.getPosition());
+
+		//Leaving is counted once, however many times it is cancelled
+		second.cancel();
+		second.cancel();
+		assertEquals(2, seats.getWaitlistLength(NAME, SECTION));
+		assertEquals(2, third.getPosition());
+		first.cancel();
+		assertEquals(1, seats.getWaitlistLength(NAME, SECTION));
+		assertEquals(1, third.getPosition());
+
+		third.cancel();
+		assertEquals(0, seats.getWaitlistLength(NAME, SECTION));
+		assertEquals(0, seats.getWaitlistLength(NAME, "002"));
+	}
+
+	/**
+	 * Tests that a section is never overbooked when more threads claim
+	 * its seats at once than it has seats.
+	 */
+	@Test
+	public void testClaimConcurrent() throws InterruptedException {
+		final int capacity = 10;
+		final int claimers = 100;
+		final SeatTable seats = new SeatTable();
+		seats.setCapacity(NAME, SECTION, capacity);
+
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger claimed = new AtomicInteger();
+		Thread[] threads = new Thread[claimers];
+		for (int i = 0; i < claimers; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				if (seats.claim(NAME, SECTION)) {
+					claimed.incrementAndGet();
+				}
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (int i = 0; i < claimers; i++) {
+			threads[i].join();
+		}
+
+		//Seats are never released, so exactly capacity claims succeed
+		assertEquals(capacity, claimed.get());
+		assertEquals(capacity, seats.getEnrollment(NAME, SECTION));
+		assertFalse(seats.claim(NAME, SECTION));
+
+		//Each released seat goes back to the section
+		for (int i = 0; i < capacity; i++) {
+			seats.release(NAME, SECTION);
+		}
+		assertEquals(0, seats.getEnrollment(NAME, SECTION));
+		for (int i = 0; i < capacity; i++) {
+			assertTrue(seats.claim(NAME, SECTION));
+		}
+		assertFalse(seats.claim(NAME, SECTION));
+	}
+
+	/**
+	 * Tests that a section is never overbooked while many threads claim
+	 * and release its seats at once, and that every seat is returned when
+	 * they are done.
+	 */
+	@Test
+	public void testClaimAndReleaseConcurrent() throws InterruptedException {
+		final int capacity = 3;
+		final int claimers = 20;
+		final int attempts = 500;
+		final SeatTable seats = new SeatTable();
+		seats.setCapacity(NAME, SECTION, capacity);
+
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger holding = new AtomicInteger();
+		final AtomicInteger overbooked = new AtomicInteger();
+		Thread[] threads = new Thread[claimers];
+		for (int i = 0; i < claimers; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int j = 0; j < attempts; j++) {
+					if (seats.claim(NAME, SECTION)) {
+						if (holding.incrementAndGet() > capacity
+								|| seats.getEnrollment(NAME, SECTION) > capacity) {
+							overbooked.incrementAndGet();
+						}
+						holding.decrementAndGet();
+						seats.release(NAME, SECTION);
+					}
+				}
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (int i = 0; i < claimers; i++) {
+			threads[i].join();
+		}
+
+		assertEquals(0, overbooked.get());
+		assertEquals(0, seats.getEnrollment(NAME, SECTION));
+		for (int i = 0; i < capacity; i++) {
+			assertTrue(seats.claim(NAME, SECTION));
+		}
+		assertFalse(seats.claim(NAME, SECTION));
+	}
+}
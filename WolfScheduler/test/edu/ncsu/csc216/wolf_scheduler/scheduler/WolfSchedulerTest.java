@@ -7,12 +7,19 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
 
 /**
  * Tests the WolfScheduler class.
@@ -78,6 +85,256 @@ public class WolfSchedulerTest {
 		assertEquals(8, ws2.getCourseCatalog().length);		
 	}
 	
+	/**
+	 * Test WolfScheduler.reloadCatalog() with a copy of the course records
+	 * that is rewritten while courses are scheduled.
+	 */
+	@Test
+	public void testReloadCatalog() throws IOException {
+		Path records = Files.createTempFile("course_records", ".txt");
+		try {
+			Files.copy(FileSystems.getDefault().getPath(validTestFile), records,
+					StandardCopyOption.REPLACE_EXISTING);
+			WolfScheduler ws = new WolfScheduler(records.toString());
+			assertTrue(ws.addCourse(NAME, SECTION));
+			assertTrue(ws.addCourse("CSC226", "001"));
+			assertTrue(ws.addCourse("CSC116", "003"));
+			assertTrue(ws.addCourse("CSC230", "001"));
+			Course oldCsc216 = ws.getCourseFromCatalog(NAME, SECTION);
+			Course oldCsc226 = ws.getCourseFromCatalog("CSC226", "001");
+			Course oldCsc116 = ws.getCourseFromCatalog("CSC116", "003");
+			Course csc230 = ws.getCourseFromCatalog("CSC230", "001");
+			assertEquals(4, ws.getModificationCount());
+			assertEquals(0, ws.getCatalogModificationCount());
+			
+			//Reloading a file that did not change keeps the schedule and
+			//is not counted as a change
+			assertEquals(0, ws.reloadCatalog(records.toString()).size());
+			assertEquals(4, ws.getScheduledCourses().length);
+			assertEquals(4, ws.getModificationCount());
+			assertEquals(0, ws.getCatalogModificationCount());
+			
+			//Nor is reloading a file that was rewritten with the same courses
+			Files.write(records, Files.readAllLines(records));
+			assertEquals(0, ws.reloadCatalog(records.toString()).size());
+			assertEquals(4, ws.getModificationCount());
+			assertEquals(0, ws.getCatalogModificationCount());
+			assertSame(oldCsc216, ws.getCourseFromCatalog(NAME, SECTION));
+			
+			//CSC216-001 has a new instructor, CSC226-001 is removed, and
+			//CSC116-003 now overlaps CSC216-001
+			Files.write(records, Arrays.asList(
+					"CSC116,Intro to Programming - Java,001,3,jdyoung2,MW,0910,1100",
+					"CSC116,Intro to Programming - Java,003,3,tbdimitr,TH,1300,1400",
+					"CSC216,Programming Concepts - Java,001,4,jtking,TH,1330,1445",
+					"CSC230,C and Software Tools,001,3,dbsturgi,MW,1145,1300"));
+			
+			ArrayList<Course> changed = ws.reloadCatalog(records.toString());
+			assertEquals(3, changed.size());
+			assertSame(oldCsc216, changed.get(0));
+			assertSame(oldCsc226, changed.get(1));
+			assertSame(oldCsc116, changed.get(2));
+			assertEquals(4, ws.getCourseCatalog().length);
+			assertEquals(5, ws.getModificationCount());
+			assertEquals(1, ws.getCatalogModificationCount());
+			
+			//The changed section is replaced, the removed and conflicting ones
+			//are dropped, and the unchanged one is kept
+			String [][] schedule = ws.getFullScheduledCourses();
+			assertEquals(2, schedule.length);
+			assertEquals(NAME, schedule[0][0]);
+			assertEquals("jtking", schedule[0][4]);
+			assertEquals("CSC230", schedule[1][0]);
+			assertSame(csc230, ws.getCourseFromCatalog("CSC230", "001"));
+			assertEquals(NAME, ws.getConflictingCourse("CSC116", "003").getName());
+			
+			//The dropped sections' seats were released
+			assertEquals(0, ws.getSeatTable().getEnrollment("CSC226", "001"));
+			assertEquals(0, ws.getSeatTable().getEnrollment("CSC116", "003"));
+			assertEquals(1, ws.getSeatTable().getEnrollment(NAME, SECTION));
+			
+			//A file that can't be read leaves the catalog and schedule as they were
+			try {
+				ws.reloadCatalog("test-files/no_such_file.txt");
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals("Cannot find file", e.getMessage());
+				assertEquals(4, ws.getCourseCatalog().length);
+				assertEquals(2, ws.getScheduledCourses().length);
+			}
+		} finally {
+			Files.deleteIfExists(records);
+		}
+	}
+	
+	/**
+	 * Test WolfScheduler.reloadCatalog() keeps a catalog that is not a
+	 * ListCourseCatalog, and only counts a reload that changes it.
+	 */
+	@Test
+	public void testReloadColumnarCatalog() throws IOException {
+		Path records = Files.createTempFile("course_records", ".txt");
+		try {
+			Files.copy(FileSystems.getDefault().getPath(validTestFile), records,
+					StandardCopyOption.REPLACE_EXISTING);
+			WolfScheduler ws = new WolfScheduler(
+					new ColumnarCourseCatalog(CourseRecordIO.readCourseRecords(records.toString())));
+			assertTrue(ws.addCourse(NAME, SECTION));
+
+			assertEquals(0, ws.reloadCatalog(records.toString()).size());
+			assertEquals(1, ws.getModificationCount());
+			assertEquals(0, ws.getCatalogModificationCount());
+
+			//A new section is a change to the catalog but not the schedule
+			List<String> lines = Files.readAllLines(records);
+			lines.add("CSC316,Data Structures and Algorithms,001,3,jdyoung2,MW,1500,1615");
+			Files.write(records, lines);
+			assertEquals(0, ws.reloadCatalog(records.toString()).size());
+			assertEquals(9, ws.getCourseCatalog().length);
+			assertEquals(2, ws.getModificationCount());
+			assertEquals(1, ws.getCatalogModificationCount());
+			assertEquals(1, ws.getScheduledCourses().length);
+			assertNotNull(ws.getCourseFromCatalog("CSC316", "001"));
+		} finally {
+			Files.deleteIfExists(records);
+		}
+	}
+
+	/**
+	 * Test that each change to the schedule or catalog bumps the right
+	 * modification count, and that nothing else does.
+	 */
+	@Test
+	public void testGetModificationCount() throws IOException {
+		Path records = Files.createTempFile("course_records", ".txt");
+		try {
+			Files.copy(FileSystems.getDefault().getPath(validTestFile), records,
+					StandardCopyOption.REPLACE_EXISTING);
+			WolfScheduler ws = new WolfScheduler(
+					new ColumnarCourseCatalog(CourseRecordIO.readCourseRecords(records.toString())));
+			assertEquals(0, ws.getModificationCount());
+			assertEquals(0, ws.getCatalogModificationCount());
+
+			//Add
+			assertTrue(ws.addCourse(NAME, SECTION));
+			assertEquals(1, ws.getModificationCount());
+			assertEquals(BatchStatus.ADDED, ws.addCourses(new String[][] {{"CSC226", "001"}, {"CSC230", "001"}})[0]);
+			assertEquals(2, ws.getModificationCount());
+
+			//Changes that fail, and reads, are not counted
+			assertFalse(ws.addCourse("CSC999", "001"));
+			try {
+				ws.addCourse(NAME, "002");
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals(2, ws.getModificationCount());
+			}
+			assertFalse(ws.removeCourse("CSC116", "001"));
+			assertEquals(BatchStatus.NOT_APPLIED,
+					ws.removeCourses(new String[][] {{NAME, SECTION}, {"CSC116", "001"}})[0]);
+			ws.setTitle("Fall");
+			ws.getScheduledCourses();
+			ws.getNonConflictingCourseCatalog();
+			assertEquals(2, ws.getModificationCount());
+			assertEquals(0, ws.getCatalogModificationCount());
+
+			//Remove
+			assertTrue(ws.removeCourse("CSC226", "001"));
+			assertEquals(3, ws.getModificationCount());
+			assertEquals(BatchStatus.REMOVED, ws.removeCourses(new String[][] {{"CSC230", "001"}})[0]);
+			assertEquals(4, ws.getModificationCount());
+
+			//Reset, even of an empty schedule
+			ws.resetSchedule();
+			assertEquals(5, ws.getModificationCount());
+			ws.resetSchedule();
+			assertEquals(6, ws.getModificationCount());
+			assertEquals(0, ws.getCatalogModificationCount());
+
+			//Reload counts against both, but only when the catalog changed
+			ws.reloadCatalog(records.toString());
+			assertEquals(6, ws.getModificationCount());
+			assertEquals(0, ws.getCatalogModificationCount());
+			Files.write(records, Arrays.asList("CSC116,Intro to Programming - Java,001,3,jdyoung2,MW,0910,1100"));
+			ws.reloadCatalog(records.toString());
+			assertEquals(7, ws.getModificationCount());
+			assertEquals(1, ws.getCatalogModificationCount());
+
+			//Schedule changes after a reload still only count against the schedule
+			assertTrue(ws.addCourse("CSC116", "001"));
+			assertEquals(8, ws.getModificationCount());
+			assertEquals(1, ws.getCatalogModificationCount());
+		} finally {
+			Files.deleteIfExists(records);
+		}
+	}
+
+	/**
+	 * Test that the table views are bound to the catalog and schedule as
+	 * they were when the view was made.
+	 */
+	@Test
+	public void testViews() throws IOException {
+		Path records = Files.createTempFile("course_records", ".txt");
+		try {
+			Files.copy(FileSystems.getDefault().getPath(validTestFile), records,
+					StandardCopyOption.REPLACE_EXISTING);
+			WolfScheduler ws = new WolfScheduler(
+					new ColumnarCourseCatalog(CourseRecordIO.readCourseRecords(records.toString())));
+			assertTrue(ws.addCourse(NAME, SECTION));
+
+			CourseTableView catalogView = ws.getCourseCatalogView();
+			CourseTableView scheduleView = ws.getScheduledCoursesView();
+			CourseTableView fullView = ws.getFullScheduledCoursesView();
+			String[][] catalog = ws.getCourseCatalog();
+			assertEquals(8, catalogView.getRowCount());
+			assertEquals(3, catalogView.getColumnCount());
+			assertEquals(3, scheduleView.getColumnCount());
+			assertEquals(6, fullView.getColumnCount());
+			for (int row = 0; row < catalog.length; row++) {
+				for (int col = 0; col < catalog[row].length; col++) {
+					assertEquals(catalog[row][col], catalogView.getValueAt(row, col));
+				}
+			}
+			assertEquals(ws.getFullScheduledCourses()[0][5], fullView.getValueAt(0, 5));
+
+			//Changes to the schedule are not seen by the old views
+			assertTrue(ws.addCourse("CSC226", "001"));
+			assertTrue(ws.removeCourse(NAME, SECTION));
+			assertEquals(1, scheduleView.getRowCount());
+			assertEquals(NAME, scheduleView.getValueAt(0, 0));
+			assertEquals(1, fullView.getRowCount());
+			assertEquals("sesmith5", fullView.getValueAt(0, 4));
+			assertEquals("CSC226", ws.getScheduledCoursesView().getValueAt(0, 0));
+			ws.resetSchedule();
+			assertEquals(1, scheduleView.getRowCount());
+			assertEquals(0, ws.getScheduledCoursesView().getRowCount());
+
+			//Nor is a reload seen by the old catalog view
+			Files.write(records, Arrays.asList("CSC316,Data Structures and Algorithms,001,3,jtking,MW,1500,1615"));
+			ws.reloadCatalog(records.toString());
+			assertEquals(8, catalogView.getRowCount());
+			assertEquals(catalog[7][0], catalogView.getValueAt(7, 0));
+			assertEquals(1, ws.getCourseCatalogView().getRowCount());
+			assertEquals("CSC316", ws.getCourseCatalogView().getValueAt(0, 0));
+
+			try {
+				catalogView.getValueAt(0, 3);
+				fail();
+			} catch (IndexOutOfBoundsException e) {
+				assertEquals("Column 3 is not in the table", e.getMessage());
+			}
+			try {
+				scheduleView.getValueAt(0, 3);
+				fail();
+			} catch (IndexOutOfBoundsException e) {
+				assertEquals("Column 3 is not in the table", e.getMessage());
+			}
+		} finally {
+			Files.deleteIfExists(records);
+		}
+	}
+
 	/**
 	 * Test WolfScheduler.getCourseFromCatalog().
 	 */
@@ -126,6 +383,98 @@ public class WolfSchedulerTest {
 		} catch (IllegalArgumentException e) {
 			assertEquals("You are already enrolled in CSC216", e.getMessage());
 		}
+		
+		//Attempt to add a course whose times overlap a scheduled course on a common day
+		assertTrue(ws.addCourse("CSC226", "001"));
+		assertNull(ws.getConflictingCourse("CSC116", "003"));
+		assertEquals("CSC226", ws.getConflictingCourse("CSC116", "001").getName());
+		try {
+			ws.addCourse("CSC116", "001");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The course cannot be added due to a conflict with CSC226-001", e.getMessage());
+			assertEquals(2, ws.getScheduledCourses().length);
+		}
+		
+		//A course that does not overlap any scheduled course can be added
+		assertTrue(ws.addCourse("CSC116", "003"));
+		assertEquals(3, ws.getScheduledCourses().length);
+		
+		//Courses at the same time on other days, arranged courses, and courses
+		//starting when a scheduled course ends
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC316", "Data Structures and Algorithms", "001", 3, "jdyoung2", "MW", 1330, 1445));
+		courses.add(new Course("CSC326", "Software Engineering", "001", 3, "sesmith5", "TH", 1330, 1445));
+		courses.add(new Course("CSC333", "Automata, Grammars, and Computability", "001", 3, "jtking", "MW", 1445, 1600));
+		courses.add(new Course("CSC495", "Special Topics", "601", 3, "jep", "A"));
+		courses.add(new Course("CSC496", "Independent Study", "601", 3, "tmbarnes", "A"));
+		WolfScheduler ws2 = new WolfScheduler(new ListCourseCatalog(courses));
+		assertTrue(ws2.addCourse("CSC316", "001"));
+		
+		//Same times on different days do not conflict
+		assertTrue(ws2.addCourse("CSC326", "001"));
+		
+		//A course starting at the time a scheduled course ends conflicts
+		try {
+			ws2.addCourse("CSC333", "001");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The course cannot be added due to a conflict with CSC316-001", e.getMessage());
+		}
+		
+		//Arranged courses never conflict
+		assertNull(ws2.getConflictingCourse("CSC495", "601"));
+		assertTrue(ws2.addCourse("CSC495", "601"));
+		assertTrue(ws2.addCourse("CSC496", "601"));
+		assertEquals(4, ws2.getScheduledCourses().length);
+	}
+	
+	/**
+	 * Test WolfScheduler.addCourse() from many threads at once. Threads
+	 * adding two sections of the same course race each round, and exactly
+	 * one of them must enroll.
+	 */
+	@Test
+	public void testAddCourseConcurrent() throws InterruptedException {
+		final int rounds = 200;
+		final int threadsPerSection = 4;
+		for (int round = 0; round < rounds; round++) {
+			final WolfScheduler ws = new WolfScheduler(validTestFile);
+			final CountDownLatch start = new CountDownLatch(1);
+			final AtomicInteger added = new AtomicInteger();
+			final AtomicInteger errors = new AtomicInteger();
+			Thread[] threads = new Thread[threadsPerSection * 2];
+			for (int i = 0; i < threads.length; i++) {
+				final String section = i % 2 == 0 ? "001" : "002";
+				threads[i] = new Thread(() -> {
+					try {
+						start.await();
+						if (ws.addCourse("CSC116", section)) {
+							added.incrementAndGet();
+						}
+						//reads never wait for the adds and always see a whole snapshot
+						ws.getConflictingCourse("CSC116", "003");
+						ws.getFullScheduledCourses();
+					} catch (IllegalArgumentException e) {
+						if (!"You are already enrolled in CSC116".equals(e.getMessage())) {
+							errors.incrementAndGet();
+						}
+					} catch (RuntimeException | InterruptedException e) {
+						errors.incrementAndGet();
+					}
+				});
+				threads[i].start();
+			}
+			start.countDown();
+			for (int i = 0; i < threads.length; i++) {
+				threads[i].join();
+			}
+			assertEquals(0, errors.get());
+			assertEquals(1, added.get());
+			assertEquals(1, ws.getScheduledCourses().length);
+			assertEquals("CSC116", ws.getScheduledCourses()[0][0]);
+			assertEquals(1, ws.getModificationCount());
+		}
 	}
 	
 	/**
@@ -172,6 +521,289 @@ public class WolfSchedulerTest {
 		assertEquals(1, ws.getFullScheduledCourses().length);
 	}
 	
+	/**
+	 * Test that schedulers made from a file name have their own seats, and
+	 * only share seats when they are given the same seat table.
+	 */
+	@Test
+	public void testSeatTableSharing() {
+		WolfScheduler ws1 = new WolfScheduler(validTestFile);
+		WolfScheduler ws2 = new WolfScheduler(validTestFile);
+		assertNotSame(ws1.getSeatTable(), ws2.getSeatTable());
+		ws1.getSeatTable().setCapacity(NAME, SECTION, 1);
+		assertTrue(ws1.addCourse(NAME, SECTION));
+		//A scheduler dropped without releasing its seats does not hold them for others
+		assertTrue(ws2.addCourse(NAME, SECTION));
+		assertEquals(1, ws2.getSeatTable().getEnrollment(NAME, SECTION));
+
+		//Schedulers given the file's seat table compete for its seats
+		SeatTable seats = CatalogCache.getSeatTable(validTestFile);
+		seats.setCapacity(NAME, SECTION, 1);
+		WolfScheduler shared1 = new WolfScheduler(CatalogCache.getCatalog(validTestFile), seats);
+		WolfScheduler shared2 = new WolfScheduler(CatalogCache.getCatalog(validTestFile), seats);
+		assertSame(seats, shared2.getSeatTable());
+		assertTrue(shared1.addCourse(NAME, SECTION));
+		try {
+			shared2.addCourse(NAME, SECTION);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The course cannot be added because CSC216-001 is full", e.getMessage());
+		}
+
+		//Resetting a shared scheduler gives its seats back
+		shared1.resetSchedule();
+		assertTrue(shared2.addCourse(NAME, SECTION));
+		assertEquals(1, seats.getEnrollment(NAME, SECTION));
+		shared2.resetSchedule();
+	}
+
+	/**
+	 * Test that students on a waitlist are promoted in the order they
+	 * joined, skipping those who left, and that a walk-up student can't
+	 * take a seat ahead of the waitlist.
+	 */
+	@Test
+	public void testWaitlist() throws InterruptedException {
+		SeatTable seats = new SeatTable();
+		CourseCatalog catalog = CatalogCache.getCatalog(validTestFile);
+		seats.setCapacity(NAME, SECTION, 1);
+		WolfScheduler holder = new WolfScheduler(catalog, seats);
+		WolfScheduler first = new WolfScheduler(catalog, seats);
+		WolfScheduler leaving = new WolfScheduler(catalog, seats);
+		WolfScheduler last = new WolfScheduler(catalog, seats);
+		WolfScheduler walkUp = new WolfScheduler(catalog, seats);
+		assertTrue(holder.addCourse(NAME, SECTION));
+
+		assertEquals(0, first.joinWaitlist("CSC999", SECTION));
+		assertEquals(1, first.joinWaitlist(NAME, SECTION));
+		assertEquals(2, leaving.joinWaitlist(NAME, SECTION));
+		assertEquals(3, last.joinWaitlist(NAME, SECTION));
+		//Joining again keeps the place
+		assertEquals(2, leaving.joinWaitlist(NAME, SECTION));
+		assertEquals(3, seats.getWaitlistLength(NAME, SECTION));
+		try {
+			holder.joinWaitlist(NAME, "002");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("You are already enrolled in " + NAME, e.getMessage());
+		}
+
+		//Leaving takes the student out of the count and moves later students up
+		assertTrue(leaving.leaveWaitlist(NAME, SECTION));
+		assertFalse(leaving.leaveWaitlist(NAME, SECTION));
+		assertEquals(0, leaving.getWaitlistPosition(NAME, SECTION));
+		assertEquals(2, last.getWaitlistPosition(NAME, SECTION));
+		assertEquals(2, seats.getWaitlistLength(NAME, SECTION));
+
+		//The released seat goes to the front of the waitlist, not a walk-up student
+		assertTrue(holder.removeCourse(NAME, SECTION));
+		try {
+			walkUp.addCourse(NAME, SECTION);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The course cannot be added because CSC216-001 is full", e.getMessage());
+		}
+		awaitScheduled(first, 1);
+		assertEquals(NAME, first.getScheduledCourses()[0][0]);
+		assertEquals(0, first.getWaitlistPosition(NAME, SECTION));
+		assertEquals(1, last.getWaitlistPosition(NAME, SECTION));
+		assertEquals(1, seats.getWaitlistLength(NAME, SECTION));
+		assertEquals(1, seats.getEnrollment(NAME, SECTION));
+
+		//A seat opened by a larger capacity also goes to the waitlist first
+		seats.setCapacity(NAME, SECTION, 2);
+		try {
+			walkUp.addCourse(NAME, SECTION);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The course cannot be added because CSC216-001 is full", e.getMessage());
+		}
+		awaitScheduled(last, 1);
+		assertEquals(0, seats.getWaitlistLength(NAME, SECTION));
+		assertEquals(2, seats.getEnrollment(NAME, SECTION));
+		assertEquals(0, leaving.getScheduledCourses().length);
+		assertEquals(0, walkUp.getScheduledCourses().length);
+
+		//With the waitlist empty, a released seat is open to anyone
+		assertTrue(first.removeCourse(NAME, SECTION));
+		assertTrue(walkUp.addCourse(NAME, SECTION));
+	}
+
+	/**
+	 * Test that a student on a waitlist is dropped from it when they enroll
+	 * in another section, so the seat goes to the next student.
+	 */
+	@Test
+	public void testWaitlistEnrolledElsewhere() throws InterruptedException {
+		SeatTable seats = new SeatTable();
+		CourseCatalog catalog = CatalogCache.getCatalog(validTestFile);
+		seats.setCapacity(NAME, SECTION, 1);
+		WolfScheduler holder = new WolfScheduler(catalog, seats);
+		WolfScheduler enrolled = new WolfScheduler(catalog, seats);
+		WolfScheduler waiting = new WolfScheduler(catalog, seats);
+		assertTrue(holder.addCourse(NAME, SECTION));
+
+		assertEquals(1, enrolled.joinWaitlist(NAME, SECTION));
+		assertEquals(2, waiting.joinWaitlist(NAME, SECTION));
+
+		//Enrolling in another section takes the student off the waitlist
+		assertTrue(enrolled.addCourse(NAME, "002"));
+		assertEquals(0, enrolled.getWaitlistPosition(NAME, SECTION));
+		assertEquals(1, waiting.getWaitlistPosition(NAME, SECTION));
+		assertEquals(1, seats.getWaitlistLength(NAME, SECTION));
+
+		assertTrue(holder.removeCourse(NAME, SECTION));
+		awaitScheduled(waiting, 1);
+		assertEquals("002", enrolled.getScheduledCourses()[0][1]);
+		assertEquals(1, enrolled.getScheduledCourses().length);
+		assertEquals(0, seats.getWaitlistLength(NAME, SECTION));
+		assertEquals(1, seats.getEnrollment(NAME, SECTION));
+	}
+
+	/**
+	 * Test that reloading a catalog takes the student off the waitlists of
+	 * the sections it removed.
+	 */
+	@Test
+	public void testReloadCatalogWaitlist() throws IOException, InterruptedException {
+		Path records = Files.createTempFile("course_records", ".txt");
+		try {
+			Files.copy(FileSystems.getDefault().getPath(validTestFile), records,
+					StandardCopyOption.REPLACE_EXISTING);
+			SeatTable seats = new SeatTable();
+			CourseCatalog catalog = new ColumnarCourseCatalog(CourseRecordIO.readCourseRecords(records.toString()));
+			seats.setCapacity(NAME, SECTION, 1);
+			seats.setCapacity("CSC226", "001", 1);
+			WolfScheduler holder = new WolfScheduler(catalog, seats);
+			WolfScheduler ws = new WolfScheduler(catalog, seats);
+			assertTrue(holder.addCourse(NAME, SECTION));
+			assertTrue(holder.addCourse("CSC226", "001"));
+			assertEquals(1, ws.joinWaitlist(NAME, SECTION));
+			assertEquals(1, ws.joinWaitlist("CSC226", "001"));
+
+			//CSC216-001 is removed, CSC226-001 is kept
+			List<String> lines = Files.readAllLines(records);
+			lines.remove("CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1330,1445");
+			Files.write(records, lines);
+			ws.reloadCatalog(records.toString());
+			assertEquals(0, ws.getWaitlistPosition(NAME, SECTION));
+			assertEquals(0, seats.getWaitlistLength(NAME, SECTION));
+			assertEquals(1, ws.getWaitlistPosition("CSC226", "001"));
+			assertEquals(1, seats.getWaitlistLength("CSC226", "001"));
+
+			//The holder's seat in the removed section is open again
+			holder.reloadCatalog(records.toString());
+			assertEquals(0, seats.getEnrollment(NAME, SECTION));
+			assertTrue(holder.removeCourse("CSC226", "001"));
+			awaitScheduled(ws, 1);
+			assertEquals("CSC226", ws.getScheduledCourses()[0][0]);
+		} finally {
+			Files.deleteIfExists(records);
+		}
+	}
+
+	/**
+	 * Helper method to wait for the promotion thread to give a scheduler
+	 * the given number of courses.
+	 * @param ws the scheduler to wait for
+	 * @param courses the number of scheduled courses to wait for
+	 */
+	private void awaitScheduled(WolfScheduler ws, int courses) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (ws.getScheduledCourses().length != courses) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("Waitlist promotion did not finish");
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Test WolfScheduler.addCourses().
+	 */
+	@Test
+	public void testAddCourses() {
+		SeatTable seats = new SeatTable();
+		WolfScheduler ws = new WolfScheduler(CatalogCache.getCatalog(validTestFile), seats);
+		
+		//Null and empty batches change nothing
+		assertEquals(0, ws.addCourses(null).length);
+		assertEquals(0, ws.addCourses(new String[0][]).length);
+		assertEquals(0, ws.getModificationCount());
+		
+		//Every failing entry is reported and the valid ones are not applied
+		String [][] batch = {{NAME, SECTION}, {"CSC116", "001"}, {"CSC492", "001"}, {NAME, "002"},
+				{"CSC226", "001"}, {"CSC230"}, null};
+		assertArrayEquals(new BatchStatus[] {BatchStatus.NOT_APPLIED, BatchStatus.NOT_APPLIED,
+				BatchStatus.NOT_IN_CATALOG, BatchStatus.ALREADY_ENROLLED, BatchStatus.CONFLICT,
+				BatchStatus.INVALID, BatchStatus.INVALID}, ws.addCourses(batch));
+		assertEquals(0, ws.getScheduledCourses().length);
+		assertEquals(0, ws.getModificationCount());
+		assertEquals(0, seats.getEnrollment(NAME, SECTION));
+		assertEquals(0, seats.getEnrollment("CSC116", "001"));
+		
+		//A full section rolls back the seats already claimed for the batch
+		seats.setCapacity("CSC230", "001", 0);
+		assertArrayEquals(new BatchStatus[] {BatchStatus.NOT_APPLIED, BatchStatus.NOT_APPLIED, BatchStatus.FULL},
+				ws.addCourses(new String[][] {{NAME, SECTION}, {"CSC116", "001"}, {"CSC230", "001"}}));
+		assertEquals(0, ws.getScheduledCourses().length);
+		assertEquals(0, ws.getModificationCount());
+		assertEquals(0, seats.getEnrollment(NAME, SECTION));
+		assertEquals(0, seats.getEnrollment("CSC116", "001"));
+		assertEquals(0, seats.getEnrollment("CSC230", "001"));
+		
+		//A valid batch is added in one change
+		assertArrayEquals(new BatchStatus[] {BatchStatus.ADDED, BatchStatus.ADDED},
+				ws.addCourses(new String[][] {{NAME, SECTION}, {"CSC116", "001"}}));
+		assertEquals(2, ws.getScheduledCourses().length);
+		assertEquals(NAME, ws.getScheduledCourses()[0][0]);
+		assertEquals("CSC116", ws.getScheduledCourses()[1][0]);
+		assertEquals(1, ws.getModificationCount());
+		assertEquals(1, seats.getEnrollment(NAME, SECTION));
+		assertEquals(1, seats.getEnrollment("CSC116", "001"));
+		
+		//Entries are also checked against the schedule
+		assertArrayEquals(new BatchStatus[] {BatchStatus.CONFLICT, BatchStatus.ALREADY_ENROLLED},
+				ws.addCourses(new String[][] {{"CSC226", "001"}, {"CSC116", "002"}}));
+		assertEquals(2, ws.getScheduledCourses().length);
+		assertEquals(1, ws.getModificationCount());
+	}
+	
+	/**
+	 * Test WolfScheduler.removeCourses().
+	 */
+	@Test
+	public void testRemoveCourses() {
+		SeatTable seats = new SeatTable();
+		WolfScheduler ws = new WolfScheduler(CatalogCache.getCatalog(validTestFile), seats);
+		assertEquals(0, ws.removeCourses(null).length);
+		assertTrue(ws.addCourse(NAME, SECTION));
+		assertTrue(ws.addCourse("CSC116", "001"));
+		assertEquals(2, ws.getModificationCount());
+		
+		//A course that is not scheduled stops the whole batch
+		assertArrayEquals(new BatchStatus[] {BatchStatus.NOT_APPLIED, BatchStatus.NOT_SCHEDULED},
+				ws.removeCourses(new String[][] {{NAME, SECTION}, {"CSC226", "001"}}));
+		
+		//A course listed twice is not scheduled the second time
+		assertArrayEquals(new BatchStatus[] {BatchStatus.NOT_APPLIED, BatchStatus.NOT_SCHEDULED},
+				ws.removeCourses(new String[][] {{NAME, SECTION}, {NAME, SECTION}}));
+		
+		assertArrayEquals(new BatchStatus[] {BatchStatus.NOT_APPLIED, BatchStatus.INVALID},
+				ws.removeCourses(new String[][] {{NAME, SECTION}, {NAME, SECTION, "x"}}));
+		assertEquals(2, ws.getScheduledCourses().length);
+		assertEquals(2, ws.getModificationCount());
+		assertEquals(1, seats.getEnrollment(NAME, SECTION));
+		
+		//A valid batch is removed in one change and its seats are released
+		assertArrayEquals(new BatchStatus[] {BatchStatus.REMOVED, BatchStatus.REMOVED},
+				ws.removeCourses(new String[][] {{"CSC116", "001"}, {NAME, SECTION}}));
+		assertEquals(0, ws.getScheduledCourses().length);
+		assertEquals(3, ws.getModificationCount());
+		assertEquals(0, seats.getEnrollment(NAME, SECTION));
+		assertEquals(0, seats.getEnrollment("CSC116", "001"));
+	}
+	
 	/**
 	 * Test WolfScheduler.resetSchedule()
 	 */
@@ -240,6 +872,43 @@ public class WolfSchedulerTest {
 		assertEquals("C and Software Tools", catalog[7][2]);
 	}
 	
+	/**
+	 * Test WolfScheduler.getNonConflictingCourseCatalog().
+	 */
+	@Test
+	public void testGetNonConflictingCourseCatalog() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+
+		//Empty schedule, so the whole catalog can be added
+		assertArrayEquals(ws.getCourseCatalog(), ws.getNonConflictingCourseCatalog());
+
+		//CSC226-001 conflicts with CSC116-001
+		assertTrue(ws.addCourse("CSC226", "001"));
+		String [][] catalog = ws.getNonConflictingCourseCatalog();
+		assertEquals(6, catalog.length);
+		assertArrayEquals(new String[] {"CSC116", "002", "Intro to Programming - Java"}, catalog[0]);
+		assertArrayEquals(new String[] {"CSC116", "003", "Intro to Programming - Java"}, catalog[1]);
+		assertArrayEquals(new String[] {"CSC216", "001", TITLE}, catalog[2]);
+		assertArrayEquals(new String[] {"CSC216", "002", TITLE}, catalog[3]);
+		assertArrayEquals(new String[] {"CSC216", "601", TITLE}, catalog[4]);
+		assertArrayEquals(new String[] {"CSC230", "001", "C and Software Tools"}, catalog[5]);
+
+		//CSC116-002 leaves out the other CSC116 sections and conflicts with CSC230-001
+		assertTrue(ws.addCourse("CSC116", "002"));
+		catalog = ws.getNonConflictingCourseCatalog();
+		assertEquals(3, catalog.length);
+		assertArrayEquals(new String[] {"CSC216", "001", TITLE}, catalog[0]);
+		assertArrayEquals(new String[] {"CSC216", "002", TITLE}, catalog[1]);
+		assertArrayEquals(new String[] {"CSC216", "601", TITLE}, catalog[2]);
+
+		//An arranged section has no conflicts, but leaves out the other CSC216 sections
+		assertTrue(ws.addCourse(NAME, "601"));
+		assertEquals(0, ws.getNonConflictingCourseCatalog().length);
+
+		ws.resetSchedule();
+		assertArrayEquals(ws.getCourseCatalog(), ws.getNonConflictingCourseCatalog());
+	}
+
 	/**
 	 * Test WolfScheduler.getScheduledCourses().
 	 */
@@ -343,6 +1012,52 @@ public class WolfSchedulerTest {
 		ws.exportSchedule("test-files/actual_schedule_export.txt");
 		checkFiles("test-files/expected_schedule_export.txt", "test-files/actual_schedule_export.txt");
 	}
+
+	/**
+	 * Test that WolfScheduler.exportSchedule() replaces an existing file
+	 * with the whole schedule and leaves no temporary file behind.
+	 */
+	@Test
+	public void testExportScheduleReplacesFile() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.addCourse("CSC216", "002");
+		ws.addCourse("CSC226", "001");
+
+		Path directory = null;
+		try {
+			directory = Files.createTempDirectory("export");
+			Path file = directory.resolve("actual_schedule_export.txt");
+			Files.write(file, Arrays.asList("old schedule", "old schedule", "old schedule"));
+
+			ws.exportSchedule(file.toString(), false);
+			checkFiles("test-files/expected_schedule_export.txt", file.toString());
+			ws.exportSchedule(file.toString(), true);
+			checkFiles("test-files/expected_schedule_export.txt", file.toString());
+			assertArrayEquals(new String[] {file.getFileName().toString()}, directory.toFile().list());
+			Files.delete(file);
+
+			//A directory that does not exist can't be written to
+			try {
+				ws.exportSchedule(file.resolveSibling("missing").resolve("export.txt").toString());
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals("The file cannot be saved.", e.getMessage());
+			}
+		} catch (IOException e) {
+			fail("Unexpected error exporting to " + directory);
+		} finally {
+			try {
+				if (directory != null) {
+					for (File f : directory.toFile().listFiles()) {
+						Files.delete(f.toPath());
+					}
+					Files.delete(directory);
+				}
+			} catch (IOException e) {
+				fail("Unable to delete " + directory);
+			}
+		}
+	}
 	
 	/**
 	 * Helper method to compare two files for the same contents